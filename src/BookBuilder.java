@@ -0,0 +1,63 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Supplier;
+
+import model.search.Evaluator;
+import model.search.OpeningBookBuilder;
+import model.search.PatternEvaluator;
+import model.search.PatternWeights;
+import model.search.PositionalEvaluator;
+
+/**
+ * A headless main method for building the opening book of a board size:
+ *
+ * <pre>
+ *   SIZE PLIES DEPTH [THREADS]
+ * </pre>
+ *
+ * <p>The book is written to opening-book-SIZE.bin in the current
+ * directory, which is where the search strategies read it from. Positions
+ * are scored with the tuned pattern weights when pattern-weights-SIZE.bin
+ * is there too, and with the positional evaluator otherwise.
+ */
+public class BookBuilder {
+
+  /**
+   * Main method for building a book.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 3) {
+      System.err.println("Usage: SIZE PLIES DEPTH [THREADS]");
+      System.exit(1);
+    }
+    int size = Integer.parseInt(args[0]);
+    int plies = Integer.parseInt(args[1]);
+    int depth = Integer.parseInt(args[2]);
+    int threads = args.length > 3 ? Integer.parseInt(args[3])
+            : Runtime.getRuntime().availableProcessors();
+    Supplier<Evaluator> evaluators = PositionalEvaluator::new;
+    if (Files.exists(Paths.get("pattern-weights-" + size + ".bin"))) {
+      PatternWeights weights = PatternWeights.forSize(size);
+      evaluators = () -> new PatternEvaluator(weights);
+    }
+    Path path = Paths.get("opening-book-" + size + ".bin").toAbsolutePath();
+    Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    long start = System.nanoTime();
+    int count;
+    try {
+      try (OutputStream out = Files.newOutputStream(temporary)) {
+        count = new OpeningBookBuilder(size, plies, depth, threads, evaluators).build(out);
+      }
+      Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+              StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+    System.out.printf("Wrote %d positions to %s in %d ms%n", count, path,
+            (System.nanoTime() - start) / 1_000_000);
+  }
+}
@@ -46,6 +46,9 @@ public class Reversi2 {
     view2.setEventListener(controller2);
     view2.setScoreLabel(frame2Setup);
 
+    controller1.setOpponent(controller2);
+    controller2.setOpponent(controller1);
+
     Game model = new Game(controller1, controller2, board);
     model.start();
   }
@@ -0,0 +1,118 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import controller.PlayerType;
+import model.AbstractBitBoard;
+import model.MoveList;
+import model.UndoRecord;
+import model.search.AlphaBetaSearch;
+import model.search.PatternTuner;
+import model.search.PatternWeights;
+import model.search.PositionalEvaluator;
+import model.search.TranspositionTable;
+
+/**
+ * A headless main method for fitting pattern weights. It either plays games
+ * against itself and writes every position with the game's result to a
+ * position file, or tunes the weights for a board size against such a file:
+ *
+ * <pre>
+ *   generate SIZE GAMES FILE [DEPTH]
+ *   tune SIZE FILE [PASSES] [THREADS]
+ * </pre>
+ *
+ * <p>Tuning starts from pattern-weights-SIZE.bin in the current directory,
+ * or the seeded weights, and writes the weights back to that file after
+ * every pass, which is where the pattern search reads them from.
+ */
+public class Tuner {
+  private static final int RANDOM_PLIES = 6;
+
+  /**
+   * Main method for generating positions or tuning weights.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length >= 4 && args[0].equals("generate")) {
+      int depth = args.length > 4 ? Integer.parseInt(args[4]) : 2;
+      generate(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Paths.get(args[3]), depth);
+    } else if (args.length >= 3 && args[0].equals("tune")) {
+      int passes = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+      int threads = args.length > 4 ? Integer.parseInt(args[4])
+              : Runtime.getRuntime().availableProcessors();
+      tune(Integer.parseInt(args[1]), Paths.get(args[2]), passes, threads);
+    } else {
+      System.err.println("Usage: generate SIZE GAMES FILE [DEPTH]"
+              + " | tune SIZE FILE [PASSES] [THREADS]");
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Plays games of a shallow search against itself, each opening with a
+   * few random moves, and writes every position reached to a file.
+   */
+  private static void generate(int size, int games, Path path, int depth) throws IOException {
+    Random random = new Random();
+    AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(16),
+            new PositionalEvaluator());
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+      PatternTuner.writeHeader(out, size);
+      for (int game = 0; game < games; game++) {
+        AbstractBitBoard board = AbstractBitBoard.create(size);
+        List<AbstractBitBoard> positions = new ArrayList<>();
+        MoveList moves = new MoveList();
+        for (int ply = 0; !board.isGameOver(); ply++) {
+          int count = board.generateMoves(board.getCurrentTurn(), moves);
+          int cell;
+          if (count == 0) {
+            cell = UndoRecord.PASS;
+          } else if (ply < RANDOM_PLIES) {
+            cell = moves.cell(random.nextInt(count));
+          } else {
+            search.clearBestCell();
+            search.start(AlphaBetaSearch.NO_DEADLINE);
+            search.searchRoot(board, depth, -AlphaBetaSearch.INFINITY, AlphaBetaSearch.INFINITY);
+            cell = search.getBestCell();
+          }
+          board.makeMove(cell);
+          if (ply >= RANDOM_PLIES) {
+            positions.add(AbstractBitBoard.copyOf(board));
+          }
+        }
+        int margin = board.countPieces(PlayerType.BLACK) - board.countPieces(PlayerType.WHITE);
+        int result = margin > 0 ? PatternTuner.BLACK_WIN
+                : margin < 0 ? PatternTuner.BLACK_LOSS : PatternTuner.DRAW;
+        for (AbstractBitBoard position : positions) {
+          PatternTuner.writePosition(out, position, result);
+        }
+      }
+    }
+  }
+
+  /**
+   * Tunes the weights for a board size against a position file, reporting
+   * the loss after every pass.
+   */
+  private static void tune(int size, Path path, int passes, int threads) throws IOException {
+    Path checkpoint = Paths.get("pattern-weights-" + size + ".bin");
+    PatternTuner tuner = new PatternTuner(PatternWeights.forSize(size), threads);
+    try {
+      System.out.println("Starting loss: " + tuner.measure(path));
+      for (int pass = 1; pass <= passes; pass++) {
+        long start = System.nanoTime();
+        double loss = tuner.tune(path, 1, checkpoint);
+        System.out.printf("Pass %d: loss %.5f in %d ms%n", pass, loss,
+                (System.nanoTime() - start) / 1_000_000);
+      }
+    } finally {
+      tuner.shutdown();
+    }
+  }
+}
@@ -5,7 +5,6 @@ import java.util.HashMap;
 import provider.model.HexCoordinates;
 import provider.model.ReadonlyReversiModel;
 import provider.model.ReversiModel;
-import controller.DirectionsEnum;
 import controller.PlayerColor;
 import controller.PlayerType;
 import model.Board;
@@ -160,48 +159,7 @@ public class ModelImpl implements ReadonlyReversiModel, ReversiModel {
 
   @Override
   public boolean isValidMove(int row, int col, PlayerColor color) {
-    int q = col + board.getBoardSize() / 2;
-    int r = row + board.getBoardSize() / 2;
-
-    if (!isValidCoordinate(q, r) || board.getCurrentHex(r, q).getPlayerType() != PlayerType.EMPTY) {
-      return false;
-    }
-
-    PlayerType playerType = convertColor(color);
-    PlayerType opponent = playerType.nextPlayer();
-
-    for (DirectionsEnum dir : DirectionsEnum.values()) {
-      int nextQ = q + dir.getQMove();
-      int nextR = r + dir.getRMove();
-
-      if (!isValidCoordinate(nextQ, nextR)) {
-        continue;
-      }
-      HexShape neighborHex = board.getCurrentHex(nextR, nextQ);
-      if (neighborHex == null) {
-        continue;
-      }
-
-      if (neighborHex.getPlayerType() != opponent) {
-        continue;
-      }
-
-      nextQ += dir.getQMove();
-      nextR += dir.getRMove();
-
-      while (isValidCoordinate(nextQ, nextR)
-              && board.getCurrentHex(nextR, nextQ) != null
-              && board.getCurrentHex(nextR, nextQ).getPlayerType() == opponent) {
-        nextQ += dir.getQMove();
-        nextR += dir.getRMove();
-      }
-
-      if (isValidCoordinate(nextQ, nextR) && board.getCurrentHex(nextR, nextQ) != null
-              && board.getCurrentHex(nextR, nextQ).getPlayerType() == playerType) {
-        return true;
-      }
-    }
-    return false;
+    return board.isValidMove(col, row, convertColor(color));
   }
 
   @Override
@@ -3,6 +3,7 @@ package controller;
 import model.Move;
 import model.ReadOnlyBoardModel;
 import model.strategies.IStrategy;
+import model.strategies.PonderingStrategy;
 
 import java.util.Optional;
 
@@ -34,6 +35,26 @@ public class AIPlayer extends Player implements IPlayer, TurnAIPopUp {
   }
 
 
+  /**
+   * Lets the strategy think on the opponent's time, if it ponders, once
+   * this player's move has been played and the turn has passed.
+   */
+  public void startPondering() {
+    if (strategy instanceof PonderingStrategy) {
+      ((PonderingStrategy) strategy).ponder(this.board);
+    }
+  }
+
+  /**
+   * Stops the strategy thinking on the opponent's time, if it ponders,
+   * keeping what it found for the next move.
+   */
+  public void stopPondering() {
+    if (strategy instanceof PonderingStrategy) {
+      ((PonderingStrategy) strategy).stopPondering();
+    }
+  }
+
   /**
    * Tells the AI, to make the move.
    */
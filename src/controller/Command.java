@@ -2,9 +2,20 @@ package controller;
 
 import model.Board;
 import model.ReadOnlyBoardModel;
+import model.search.BasicEvaluator;
+import model.search.OpeningBook;
+import model.search.PatternEvaluator;
+import model.search.PatternWeights;
+import model.search.TranspositionTable;
+import model.strategies.AlphaBetaStrategy;
 import model.strategies.CaptureStrategy;
+import model.strategies.EndgameStrategy;
 import model.strategies.GoForCornersStrategy;
 import model.strategies.IStrategy;
+import model.strategies.IterativeDeepeningStrategy;
+import model.strategies.MonteCarloStrategy;
+import model.strategies.OpeningBookStrategy;
+import model.strategies.PonderingStrategy;
 import model.strategies.TryTwo;
 
 /**
@@ -89,6 +100,11 @@ public class Command {
       case "corner capture":
       case "capture capture":
       case "corner corner":
+      case "search":
+      case "parallel search":
+      case "pattern search":
+      case "ponder search":
+      case "mcts":
         return true;
       default:
         return false;
@@ -122,6 +138,29 @@ public class Command {
         return new TryTwo(new CaptureStrategy(), new GoForCornersStrategy());
       case "corner capture":
         return new TryTwo(new GoForCornersStrategy(), new CaptureStrategy());
+      case "search":
+        return new OpeningBookStrategy(new EndgameStrategy(new IterativeDeepeningStrategy(
+                new AlphaBetaStrategy())), OpeningBook.forSize(boardSize));
+      case "parallel search":
+        return new OpeningBookStrategy(new EndgameStrategy(new IterativeDeepeningStrategy(
+                new AlphaBetaStrategy(AlphaBetaStrategy.DEFAULT_DEPTH,
+                new TranspositionTable(AlphaBetaStrategy.DEFAULT_TABLE_MEGABYTES),
+                Runtime.getRuntime().availableProcessors()))), OpeningBook.forSize(boardSize));
+      case "pattern search":
+        PatternWeights weights = PatternWeights.forSize(boardSize);
+        return new OpeningBookStrategy(new EndgameStrategy(new IterativeDeepeningStrategy(
+                new AlphaBetaStrategy(AlphaBetaStrategy.DEFAULT_DEPTH,
+                new TranspositionTable(AlphaBetaStrategy.DEFAULT_TABLE_MEGABYTES),
+                1, () -> new PatternEvaluator(weights)))), OpeningBook.forSize(boardSize));
+      case "ponder search":
+        TranspositionTable table =
+                new TranspositionTable(AlphaBetaStrategy.DEFAULT_TABLE_MEGABYTES);
+        return new PonderingStrategy(new OpeningBookStrategy(new EndgameStrategy(
+                new IterativeDeepeningStrategy(new AlphaBetaStrategy(
+                AlphaBetaStrategy.DEFAULT_DEPTH, table))), OpeningBook.forSize(boardSize)),
+                table, BasicEvaluator::new);
+      case "mcts":
+        return new MonteCarloStrategy();
       default:
         throw new IllegalArgumentException("Invalid strategy: " + strategyStr);
     }
@@ -15,6 +15,7 @@ public class ReversiController implements PlayerActionListener, Observer, MoveHa
   private DrawUtils view;
   private boolean turnMessageDisplayed = false;
   private boolean isUpdating = false;
+  private ReversiController opponent = null;
 
   /**
    * The constructor, that sets up the observers and make sure the game isn't over when started.
@@ -31,6 +32,40 @@ public class ReversiController implements PlayerActionListener, Observer, MoveHa
     view.resetGameOverHandled();
   }
 
+  /**
+   * Links the controller of the other player, so that a move played here
+   * reaches it as soon as it arrives.
+   */
+  public void setOpponent(ReversiController opponent) {
+    this.opponent = opponent;
+  }
+
+  /**
+   * Stops this player thinking on the opponent's time now that the
+   * opponent's move has arrived. What it found is kept for its own move.
+   */
+  public void onOpponentMove() {
+    stopPondering();
+  }
+
+  /**
+   * Stops the player pondering, if it is an AI.
+   */
+  private void stopPondering() {
+    if (player instanceof AIPlayer) {
+      ((AIPlayer) player).stopPondering();
+    }
+  }
+
+  /**
+   * Tells the opponent's controller, if linked, that this player's move has arrived.
+   */
+  private void handOver() {
+    if (opponent != null) {
+      opponent.onOpponentMove();
+    }
+  }
+
   /**
    * Places the piece on the board.
    */
@@ -66,6 +101,7 @@ public class ReversiController implements PlayerActionListener, Observer, MoveHa
       view.showInvalidMoveMessage();
       return;
     }
+    handOver();
     checkAndUpdateGameState();
   }
 
@@ -93,6 +129,7 @@ public class ReversiController implements PlayerActionListener, Observer, MoveHa
       view.showThatIPassedTurnMessage();
     }
     player.setHasPassed();
+    handOver();
     checkAndUpdateGameState();
   }
 
@@ -107,11 +144,13 @@ public class ReversiController implements PlayerActionListener, Observer, MoveHa
     try {
       isUpdating = true;
       if (board.isGameOver() && !view.getGameOverHandleState()) {
+        stopPondering();
         view.handleGameOver();
         return;
       }
       updateScoreInView();
       if (board.isGameOver()) {
+        stopPondering();
         view.handleGameOver();
       } else {
         if (board.isPlayerTurn(player)) {
@@ -120,9 +159,12 @@ public class ReversiController implements PlayerActionListener, Observer, MoveHa
               ((AIPlayer) player).makeMove();
               if (player.getHasPassed()) {
                 onPass();
+              } else {
+                handOver();
               }
               board.notifyObservers();
               checkAndUpdateGameState();
+              ((AIPlayer) player).startPondering();
             } else {
               turnMessageDisplayed = true;
               view.itIsNowYourTurnMessage();
@@ -153,6 +195,8 @@ public class ReversiController implements PlayerActionListener, Observer, MoveHa
    */
   @Override
   public void onGameOver() {
+    stopPondering();
+    handOver();
     view.handleGameOver();
   }
 
@@ -169,6 +213,8 @@ public class ReversiController implements PlayerActionListener, Observer, MoveHa
     view.updateBoard(board);
 
     if (board.isGameOver()) {
+      stopPondering();
+      handOver();
       view.handleGameOver();
       return;
     }
@@ -0,0 +1,503 @@
+package model;
+
+import controller.Player;
+import controller.PlayerType;
+import view.Observer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The turn, pass and observer handling shared by every bitboard.
+ * Subclasses store the discs as bitsets over the indices of a HexGeometry
+ * and supply the move generation and flipping for that storage.
+ * Use create and copyOf to get the right bitboard for a board size.
+ */
+public abstract class AbstractBitBoard implements ReadOnlyBoardModel, BoardModel {
+  private final List<Observer> observers = new ArrayList<>();
+  protected final HexGeometry geometry;
+  protected final int boardSize;
+  private PlayerType currentTurn;
+  private boolean whitePassed = false;
+  private boolean blackPassed = false;
+  private final UndoStack undoStack;
+  private final Zobrist zobrist;
+  private long hash = 0L;
+
+  /**
+   * Sets up the shared state for a board of a certain size.
+   * Throws an exception if the size is even or less than 5.
+   */
+  protected AbstractBitBoard(int sizeOfBoard) {
+    this.geometry = HexGeometry.of(sizeOfBoard);
+    this.boardSize = sizeOfBoard;
+    this.currentTurn = PlayerType.BLACK;
+    this.undoStack = new UndoStack(geometry.getIndexCount());
+    this.zobrist = Zobrist.of(sizeOfBoard);
+  }
+
+  /**
+   * Returns a bitboard with the starting position for a board size,
+   * using a single word when the board fits in one long.
+   */
+  public static AbstractBitBoard create(int sizeOfBoard) {
+    if (HexGeometry.of(sizeOfBoard).getIndexCount() <= Long.SIZE) {
+      return new BitBoard(sizeOfBoard);
+    }
+    return new WideBitBoard(sizeOfBoard);
+  }
+
+  /**
+   * Returns a bitboard holding the same position, turn and passes as
+   * another board, using a single word when the board fits in one long.
+   */
+  public static AbstractBitBoard copyOf(ReadOnlyBoardModel source) {
+    AbstractBitBoard board = create(source.getBoardSize());
+    board.copyPosition(source);
+    return board;
+  }
+
+  /**
+   * Places the six starting pieces, matching a Board of the same size.
+   */
+  protected void placeStartingPieces() {
+    int mid = geometry.getMidPoint();
+    putCell(geometry.index(mid, mid + 1), PlayerType.BLACK);
+    putCell(geometry.index(mid + 1, mid), PlayerType.WHITE);
+    putCell(geometry.index(mid, mid - 1), PlayerType.WHITE);
+    putCell(geometry.index(mid + 1, mid - 1), PlayerType.BLACK);
+    putCell(geometry.index(mid - 1, mid), PlayerType.BLACK);
+    putCell(geometry.index(mid - 1, mid + 1), PlayerType.WHITE);
+  }
+
+  /**
+   * Replaces this position, turn and passes with those of another board.
+   */
+  protected void copyPosition(ReadOnlyBoardModel source) {
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      int index = geometry.cellAt(i);
+      HexShape hex = source.getCurrentHex(geometry.row(index), geometry.column(index));
+      putCell(index, hex == null ? PlayerType.EMPTY : hex.getPlayerType());
+    }
+    setTurn(source.getCurrentTurn());
+    setPassed(PlayerType.WHITE, source.hasPlayerPassed(PlayerType.WHITE));
+    setPassed(PlayerType.BLACK, source.hasPlayerPassed(PlayerType.BLACK));
+  }
+
+  /**
+   * Sets the player type of the hex at a certain index,
+   * keeping the position hash up to date.
+   */
+  private void putCell(int index, PlayerType type) {
+    hash ^= zobrist.pieceKey(typeAt(index), index) ^ zobrist.pieceKey(type, index);
+    setCell(index, type);
+  }
+
+  /**
+   * Updates the position hash for the flipped pieces in one word of a
+   * flip bitmask. Subclasses call this from applyFlips.
+   */
+  protected final void hashFlips(long bits, int word) {
+    while (bits != 0) {
+      hash ^= zobrist.flipKey(word * Long.SIZE + Long.numberOfTrailingZeros(bits));
+      bits &= bits - 1;
+    }
+  }
+
+  /**
+   * Changes whose turn it is, keeping the position hash up to date.
+   */
+  private void setTurn(PlayerType turn) {
+    if ((turn == PlayerType.WHITE) != (currentTurn == PlayerType.WHITE)) {
+      hash ^= zobrist.turnKey();
+    }
+    currentTurn = turn;
+  }
+
+  /**
+   * Changes whether a player has passed, keeping the position hash up to date.
+   */
+  private void setPassed(PlayerType playerType, boolean passed) {
+    if (playerType == PlayerType.WHITE) {
+      if (whitePassed != passed) {
+        hash ^= zobrist.passKey(playerType);
+      }
+      whitePassed = passed;
+    } else if (playerType == PlayerType.BLACK) {
+      if (blackPassed != passed) {
+        hash ^= zobrist.passKey(playerType);
+      }
+      blackPassed = passed;
+    }
+  }
+
+  /**
+   * Returns the player type of the hex at a certain index.
+   */
+  protected abstract PlayerType typeAt(int index);
+
+  /**
+   * Sets the player type of the hex at a certain index,
+   * leaving the position hash alone.
+   */
+  protected abstract void setCell(int index, PlayerType type);
+
+  /**
+   * Determines if a piece of a player at an empty index would flip anything.
+   */
+  protected abstract boolean hasFlips(int index, PlayerType player);
+
+  /**
+   * Returns how many pieces a piece of a player at an index would flip.
+   */
+  protected abstract int countFlips(int index, PlayerType player);
+
+  /**
+   * Flips every line closed off by a piece of a player at an index,
+   * passing the flipped pieces to hashFlips.
+   */
+  protected abstract void applyFlips(int index, PlayerType player);
+
+  /**
+   * Adds every legal move of a player to a move list, in row-scan order.
+   */
+  protected abstract void addMoves(PlayerType player, MoveList moves);
+
+  /**
+   * Returns the number of legal moves of a player who is black or white.
+   */
+  protected abstract int countLegalMoves(PlayerType player);
+
+  /**
+   * Puts a piece of a player at an empty index and flips what it closes off,
+   * storing the flips in the record.
+   */
+  protected abstract void playMove(int index, PlayerType player, UndoRecord record);
+
+  /**
+   * Removes the piece a player put at an index and gives back the flips
+   * stored in the record.
+   */
+  protected abstract void takeBackMove(int index, PlayerType player, UndoRecord record);
+
+  /**
+   * Plays a hex index, or UndoRecord.PASS, for the player whose turn it is.
+   * Unlike placePiece this flips, switches turns and does not notify
+   * observers, and the move can be taken back with unmakeMove.
+   */
+  @Override
+  public UndoRecord makeMove(int cell) {
+    PlayerType mover = currentTurn;
+    UndoRecord record = undoStack.push(cell, mover, whitePassed, blackPassed, hash);
+    if (cell == UndoRecord.PASS) {
+      playerPass(mover);
+    } else {
+      playMove(cell, mover, record);
+      hash ^= zobrist.pieceKey(mover, cell);
+      for (int i = record.nextFlipped(0); i >= 0; i = record.nextFlipped(i + 1)) {
+        hash ^= zobrist.flipKey(i);
+      }
+      setPassed(PlayerType.WHITE, false);
+      setPassed(PlayerType.BLACK, false);
+    }
+    setTurn(mover.nextPlayer());
+    return record;
+  }
+
+  /**
+   * Takes back the most recent move made with makeMove, in place.
+   */
+  @Override
+  public void unmakeMove(UndoRecord record) {
+    undoStack.pop(record);
+    if (!record.isPass()) {
+      takeBackMove(record.getCell(), record.getMover(), record);
+    }
+    whitePassed = record.whitePassed;
+    blackPassed = record.blackPassed;
+    currentTurn = record.getMover();
+    hash = record.hash;
+  }
+
+  @Override
+  public void addObserver(Observer o) {
+    observers.add(o);
+  }
+
+  /**
+   * Notifies the observers of any changes, the Observer pattern.
+   */
+  public void notifyObservers() {
+    for (Observer observer : observers) {
+      observer.update();
+    }
+  }
+
+  /**
+   * Notifies observers that the game is over.
+   */
+  public void notifyObserversGameOver() {
+    for (Observer observer : observers) {
+      observer.onGameOver();
+    }
+  }
+
+  /**
+   * Returns a hex showing the contents of a certain row and column,
+   * or null when that position is not on the board.
+   * The hex is a snapshot; changing it does not change the board.
+   */
+  @Override
+  public HexShape getCurrentHex(int row, int column) {
+    if (!geometry.isOnBoard(row, column)) {
+      return null;
+    }
+    int mid = geometry.getMidPoint();
+    return new HexShape(row - mid, column - mid, typeAt(geometry.index(row, column)));
+  }
+
+  /**
+   * Switches whose turn it is.
+   */
+  public void switchTurns() {
+    setTurn((currentTurn == PlayerType.BLACK) ? PlayerType.WHITE : PlayerType.BLACK);
+    notifyObservers();
+  }
+
+  /**
+   * Checks if it is the current player's turn.
+   */
+  public boolean isPlayerTurn(Player player) {
+    if (player == null) {
+      throw new IllegalStateException("Player is null");
+    }
+    if (player.getType() == null) {
+      throw new IllegalStateException("PlayerType is null");
+    }
+    return currentTurn == player.getType();
+  }
+
+  /**
+   * Determines if a player type is one that owns pieces.
+   */
+  private static boolean isColor(PlayerType type) {
+    return type == PlayerType.BLACK || type == PlayerType.WHITE;
+  }
+
+  /**
+   * Flips every line of opponent pieces that a piece of the current player
+   * at the given column and row closes off.
+   */
+  @Override
+  public void flipPieces(int x, int y, PlayerType currentPlayer) {
+    if (isColor(currentPlayer) && geometry.isOnBoard(y, x)) {
+      applyFlips(geometry.index(y, x), currentPlayer);
+    }
+  }
+
+  /**
+   * Determines if a valid move is passed in,
+   * based on coordinates, and a player type.
+   */
+  @Override
+  public boolean isValidMove(int x, int y, PlayerType playerType) {
+    int q = x + geometry.getMidPoint();
+    int r = y + geometry.getMidPoint();
+    if (!geometry.isOnBoard(r, q) || !isColor(playerType)) {
+      return false;
+    }
+    int index = geometry.index(r, q);
+    return typeAt(index) == PlayerType.EMPTY && hasFlips(index, playerType);
+  }
+
+  /**
+   * Calculates the amount of captures a move does.
+   */
+  public int calculateCaptures(int q, int r, PlayerType player) {
+    int column = q + geometry.getMidPoint();
+    int row = r + geometry.getMidPoint();
+    if (!geometry.isOnBoard(row, column) || !isColor(player)) {
+      return 0;
+    }
+    return countFlips(geometry.index(row, column), player);
+  }
+
+  /**
+   * Determines is a valid coordinate was passed in
+   * based on rows and columns.
+   */
+  @Override
+  public boolean isValidCoordinate(int q, int r) {
+    return q >= 0 && q < boardSize && r >= 0 && r < boardSize;
+  }
+
+  /**
+   * Places a certain piece in the board, based on
+   * row and column, and playerType.
+   */
+  @Override
+  public void placePiece(int q, int r, PlayerType type) {
+    putCell(geometry.index(r, q), type);
+    setPassed(PlayerType.WHITE, false);
+    setPassed(PlayerType.BLACK, false);
+    checkGameOver();
+  }
+
+  /**
+   * Changes the state of each player if they passed or not.
+   */
+  @Override
+  public void playerPass(PlayerType playerType) {
+    setPassed(playerType, true);
+  }
+
+  @Override
+  public int getScoreWhite() {
+    return countPieces(PlayerType.WHITE);
+  }
+
+  @Override
+  public int getScoreBlack() {
+    return countPieces(PlayerType.BLACK);
+  }
+
+  @Override
+  public int getBoardSize() {
+    return boardSize;
+  }
+
+  /**
+   * Determines whether a game is over
+   * based on if the board is full, or if both
+   * players have skipped their turn.
+   */
+  @Override
+  public boolean isGameOver() {
+    return isBoardFull() || (whitePassed && blackPassed);
+  }
+
+  @Override
+  public boolean hasPlayerPassed(PlayerType type) {
+    if (type == PlayerType.WHITE) {
+      return whitePassed;
+    } else if (type == PlayerType.BLACK) {
+      return blackPassed;
+    }
+    return false;
+  }
+
+  /**
+   * Gets a valid list of moves that a player can play, in the same
+   * row-scan order as a Board.
+   */
+  @Override
+  public List<Move> getValidMovesWithCaptures(Player player) {
+    List<Move> validMoves = new ArrayList<>();
+    MoveList moves = new MoveList(geometry.getCellCount());
+    generateMoves(player.getType(), moves);
+    for (int i = 0; i < moves.size(); i++) {
+      int index = moves.cell(i);
+      validMoves.add(new Move(geometry.moveX(index), geometry.moveY(index), moves.captures(i)));
+    }
+    return validMoves;
+  }
+
+  @Override
+  public int generateMoves(PlayerType player, MoveList moves) {
+    moves.clear();
+    if (isColor(player)) {
+      addMoves(player, moves);
+    }
+    return moves.size();
+  }
+
+  @Override
+  public int countMoves(PlayerType player) {
+    return isColor(player) ? countLegalMoves(player) : 0;
+  }
+
+  /**
+   * Checks if a move is a corner move.
+   */
+  @Override
+  public boolean isCornerMove(Move move, int boardSize) {
+    int x = move.getX();
+    int y = move.getY();
+    return (x == 0 && y == 0) ||
+            (x == 0 && y == boardSize - 1) ||
+            (x == boardSize - 1 && y == 0) ||
+            (x == boardSize - 1 && y == boardSize - 1);
+  }
+
+  @Override
+  public int getMidPoint() {
+    return geometry.getMidPoint();
+  }
+
+  /**
+   * Returns a Board holding a copy of this position.
+   * Changes made to the copy are not reflected in this bitboard.
+   */
+  @Override
+  public Board getRegularBoard() {
+    Board board = new Board(boardSize);
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      int index = geometry.cellAt(i);
+      board.getCurrentHex(geometry.row(index), geometry.column(index))
+              .setPlayerType(typeAt(index));
+    }
+    if (whitePassed) {
+      board.playerPass(PlayerType.WHITE);
+    }
+    if (blackPassed) {
+      board.playerPass(PlayerType.BLACK);
+    }
+    if (board.getCurrentTurn() != currentTurn) {
+      board.switchTurns();
+    }
+    return board;
+  }
+
+  @Override
+  public PlayerType getCurrentTurn() {
+    return currentTurn;
+  }
+
+  @Override
+  public PlayerType getPlayerTypeAt(int index) {
+    return typeAt(index);
+  }
+
+  @Override
+  public long getPositionHash() {
+    return hash;
+  }
+
+  @Override
+  public HexGeometry getGeometry() {
+    return geometry;
+  }
+
+  /**
+   * Resets the white Passed boolean.
+   */
+  public void resetWhitePassed() {
+    setPassed(PlayerType.WHITE, false);
+  }
+
+  /**
+   * Resets the black Passed boolean.
+   */
+  public void resetBlackPassed() {
+    setPassed(PlayerType.BLACK, false);
+  }
+
+  /**
+   * Checks to see if the game is over to notify observers.
+   */
+  public void checkGameOver() {
+    if (isGameOver()) {
+      notifyObserversGameOver();
+    }
+  }
+}
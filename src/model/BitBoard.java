@@ -0,0 +1,220 @@
+package model;
+
+import controller.DirectionsEnum;
+import controller.PlayerType;
+
+/**
+ * A board that stores the position as two bitboards, one per color.
+ * Bit i of each word is the hex with index i in the board's HexGeometry,
+ * so the whole board must fit in a single long. Moves and flips are found
+ * by shifting whole bitboards one step at a time in each of the six directions.
+ */
+public class BitBoard extends AbstractBitBoard {
+  private static final int DIRECTIONS = DirectionsEnum.values().length;
+
+  private final long boardMask;
+  private final int[] shifts = new int[DIRECTIONS];
+  private final long[] shiftMasks = new long[DIRECTIONS];
+
+  private long black;
+  private long white;
+
+  /**
+   * Creates a bitboard with the default size of 7.
+   */
+  public BitBoard() {
+    this(7);
+  }
+
+  /**
+   * Creates a bitboard with the same starting position as a Board of that size.
+   * Throws an exception if the size is even, less than 5, or too large
+   * to fit in one long.
+   */
+  public BitBoard(int sizeOfBoard) {
+    super(sizeOfBoard);
+    if (geometry.getIndexCount() > Long.SIZE) {
+      throw new IllegalArgumentException(
+              "A board of size " + sizeOfBoard + " does not fit in a single bitboard.");
+    }
+
+    long mask = 0L;
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      mask |= 1L << geometry.cellAt(i);
+    }
+    this.boardMask = mask;
+
+    for (DirectionsEnum dir : DirectionsEnum.values()) {
+      shifts[dir.ordinal()] = geometry.delta(dir);
+      long reachable = 0L;
+      for (int i = 0; i < geometry.getCellCount(); i++) {
+        int neighbor = geometry.neighbor(geometry.cellAt(i), dir);
+        if (neighbor >= 0) {
+          reachable |= 1L << neighbor;
+        }
+      }
+      shiftMasks[dir.ordinal()] = reachable;
+    }
+    placeStartingPieces();
+  }
+
+  /**
+   * Creates a bitboard holding the same position, turn and passes as another board.
+   */
+  public BitBoard(ReadOnlyBoardModel source) {
+    this(source.getBoardSize());
+    copyPosition(source);
+  }
+
+  /**
+   * Moves every bit of a bitboard one step in a direction, dropping
+   * the bits that would leave the board.
+   */
+  private long shift(long bits, int dir) {
+    int amount = shifts[dir];
+    long moved = amount > 0 ? bits << amount : bits >>> -amount;
+    return moved & shiftMasks[dir];
+  }
+
+  /**
+   * Returns the bitboard of a certain player type.
+   */
+  private long bitsOf(PlayerType type) {
+    if (type == PlayerType.BLACK) {
+      return black;
+    } else if (type == PlayerType.WHITE) {
+      return white;
+    }
+    return boardMask & ~(black | white);
+  }
+
+  /**
+   * Returns the discs that a disc placed at an index would flip, as a bitboard.
+   */
+  private long flipsFor(int index, long own, long opponent) {
+    long flips = 0L;
+    long start = 1L << index;
+    for (int dir = 0; dir < DIRECTIONS; dir++) {
+      long line = 0L;
+      long next = shift(start, dir);
+      while ((next & opponent) != 0) {
+        line |= next;
+        next = shift(next, dir);
+      }
+      if ((next & own) != 0) {
+        flips |= line;
+      }
+    }
+    return flips;
+  }
+
+  /**
+   * Returns every empty hex where the player with the own bitboard may play.
+   */
+  private long legalMoves(long own, long opponent) {
+    long empty = boardMask & ~(own | opponent);
+    long moves = 0L;
+    for (int dir = 0; dir < DIRECTIONS; dir++) {
+      long line = shift(own, dir) & opponent;
+      for (int i = 0; i < boardSize - 3; i++) {
+        line |= shift(line, dir) & opponent;
+      }
+      moves |= shift(line, dir) & empty;
+    }
+    return moves;
+  }
+
+  @Override
+  protected void setCell(int index, PlayerType type) {
+    long bit = 1L << index;
+    black &= ~bit;
+    white &= ~bit;
+    if (type == PlayerType.BLACK) {
+      black |= bit;
+    } else if (type == PlayerType.WHITE) {
+      white |= bit;
+    }
+  }
+
+  @Override
+  protected PlayerType typeAt(int index) {
+    long bit = 1L << index;
+    if ((black & bit) != 0) {
+      return PlayerType.BLACK;
+    } else if ((white & bit) != 0) {
+      return PlayerType.WHITE;
+    }
+    return PlayerType.EMPTY;
+  }
+
+  @Override
+  protected boolean hasFlips(int index, PlayerType player) {
+    return flipsFor(index, bitsOf(player), bitsOf(player.nextPlayer())) != 0;
+  }
+
+  @Override
+  protected int countFlips(int index, PlayerType player) {
+    return Long.bitCount(flipsFor(index, bitsOf(player), bitsOf(player.nextPlayer())));
+  }
+
+  @Override
+  protected void applyFlips(int index, PlayerType player) {
+    long flips = flipsFor(index, bitsOf(player), bitsOf(player.nextPlayer()));
+    setColors(player, flips, flips);
+    hashFlips(flips, 0);
+  }
+
+  @Override
+  protected void playMove(int index, PlayerType player, UndoRecord record) {
+    long flips = flipsFor(index, bitsOf(player), bitsOf(player.nextPlayer()));
+    record.flips[0] = flips;
+    record.flipCount = Long.bitCount(flips);
+    setColors(player, flips | (1L << index), flips);
+  }
+
+  @Override
+  protected void takeBackMove(int index, PlayerType player, UndoRecord record) {
+    long flips = record.flips[0];
+    setColors(player.nextPlayer(), flips, flips | (1L << index));
+  }
+
+  /**
+   * Gives the gained bits to a player and takes the lost bits from the other.
+   */
+  private void setColors(PlayerType player, long gained, long lost) {
+    if (player == PlayerType.BLACK) {
+      black |= gained;
+      white &= ~lost;
+    } else {
+      white |= gained;
+      black &= ~lost;
+    }
+  }
+
+  @Override
+  protected void addMoves(PlayerType player, MoveList moves) {
+    long own = bitsOf(player);
+    long opponent = bitsOf(player.nextPlayer());
+    long legal = legalMoves(own, opponent);
+    while (legal != 0) {
+      int index = Long.numberOfTrailingZeros(legal);
+      legal &= legal - 1;
+      moves.add(index, Long.bitCount(flipsFor(index, own, opponent)));
+    }
+  }
+
+  @Override
+  protected int countLegalMoves(PlayerType player) {
+    return Long.bitCount(legalMoves(bitsOf(player), bitsOf(player.nextPlayer())));
+  }
+
+  @Override
+  public boolean isBoardFull() {
+    return (black | white) == boardMask;
+  }
+
+  @Override
+  public int countPieces(PlayerType type) {
+    return Long.bitCount(bitsOf(type));
+  }
+}
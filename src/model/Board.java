@@ -1,6 +1,5 @@
 package model;
 
-import controller.DirectionsEnum;
 import controller.Player;
 import controller.PlayerType;
 import view.Observer;
@@ -32,6 +31,17 @@ public class Board implements ReadOnlyBoardModel, BoardModel {
   private PlayerType currentTurn;
   public int boardSize;
   public HexShape[][] cellsThatMakeTheBoard;
+  private final HexGeometry geometry;
+  private final HexShape[] hexes;
+  private final int[] lineBlack;
+  private final int[] lineWhite;
+  private final byte[][] lineTables;
+  private int blackCount = 0;
+  private int whiteCount = 0;
+  private int emptyCount;
+  private final UndoStack undoStack;
+  private final Zobrist zobrist;
+  private long hash = 0L;
   private boolean whitePassed = false;
   private boolean blackPassed = false;
 
@@ -55,7 +65,18 @@ public class Board implements ReadOnlyBoardModel, BoardModel {
     }
 
     boardSize = sizeOfBoard;
+    geometry = HexGeometry.of(boardSize);
     cellsThatMakeTheBoard = new HexShape[boardSize][boardSize];
+    hexes = new HexShape[geometry.getIndexCount()];
+    lineBlack = new int[geometry.getLineCount()];
+    lineWhite = new int[geometry.getLineCount()];
+    lineTables = new byte[geometry.getLineCount()][];
+    emptyCount = geometry.getCellCount();
+    undoStack = new UndoStack(geometry.getIndexCount());
+    zobrist = Zobrist.of(boardSize);
+    for (int line = 0; line < geometry.getLineCount(); line++) {
+      lineTables[line] = LinePatterns.tableFor(geometry.lineCells(line).length);
+    }
     int midPoint = boardSize / 2;
 
     for (int row = 0; row < boardSize; row++) {
@@ -74,6 +95,8 @@ public class Board implements ReadOnlyBoardModel, BoardModel {
         int q = column - midPoint;
         int r = row - midPoint;
         cellsThatMakeTheBoard[row][column] = new HexShape(r, q, null);
+        hexes[geometry.index(row, column)] = cellsThatMakeTheBoard[row][column];
+        hexes[geometry.index(row, column)].attach(this, geometry.index(row, column));
       }
     }
     this.getCurrentHex(this.boardSize / 2,
@@ -104,7 +127,7 @@ public class Board implements ReadOnlyBoardModel, BoardModel {
 
 
   public void switchTurns() {
-    currentTurn = (currentTurn == PlayerType.BLACK) ? PlayerType.WHITE : PlayerType.BLACK;
+    setTurn((currentTurn == PlayerType.BLACK) ? PlayerType.WHITE : PlayerType.BLACK);
     notifyObservers();
   }
 
@@ -143,40 +166,86 @@ public class Board implements ReadOnlyBoardModel, BoardModel {
       return;
     }
 
-    for (DirectionsEnum dir : DirectionsEnum.values()) {
-      int nextQ = x + dir.getQMove();
-      int nextR = y + dir.getRMove();
+    if (!geometry.isOnBoard(y, x)) {
+      return;
+    }
+    flipLines(geometry.index(y, x), currentPlayer, null);
+  }
 
-      // Skip if the next hex is not opponent's or out of bounds
-      if (!isValidCoordinate(nextQ, nextR)) {
-        continue;
-      }
-      HexShape neighborHex = getCurrentHex(nextR, nextQ);
-      if (neighborHex == null) {
-        continue;
-      }
+  /**
+   * Flips every line of opponent pieces that a piece of a player at an index
+   * closes off, adding each flipped hex to the record when there is one.
+   */
+  private void flipLines(int index, PlayerType player, UndoRecord record) {
+    int[] own = lineBitsOf(player);
+    int[] opponent = lineBitsOf(player.nextPlayer());
+    if (own == null || opponent == null) {
+      return;
+    }
 
-      if (neighborHex.getPlayerType() != opponent) {
-        continue;
+    for (int axis = 0; axis < HexGeometry.AXES; axis++) {
+      int line = geometry.lineOf(index, axis);
+      int position = geometry.linePosition(index, axis);
+      int[] cells = geometry.lineCells(line);
+      int span = LinePatterns.span(lineTables[line], cells.length,
+              own[line], opponent[line], position);
+      for (int i = 1; i <= LinePatterns.flipsBefore(span); i++) {
+        flipHex(cells[position - i], player, record);
+      }
+      for (int i = 1; i <= LinePatterns.flipsAfter(span); i++) {
+        flipHex(cells[position + i], player, record);
       }
+    }
+  }
 
-      List<HexShape> piecesToFlip = new ArrayList<>();
+  /**
+   * Gives the hex at an index to a player, recording it when there is a record.
+   */
+  private void flipHex(int index, PlayerType player, UndoRecord record) {
+    hexes[index].setPlayerType(player);
+    if (record != null) {
+      record.addFlip(index);
+    }
+  }
 
-      while (isValidCoordinate(nextQ, nextR) && getCurrentHex(nextR, nextQ) != null
-              && getCurrentHex(nextR, nextQ).getPlayerType() == opponent) {
-        piecesToFlip.add(getCurrentHex(nextR, nextQ));
-        nextQ += dir.getQMove();
-        nextR += dir.getRMove();
+  /**
+   * Plays a hex index, or UndoRecord.PASS, for the player whose turn it is.
+   * Unlike placePiece this flips, switches turns and does not notify
+   * observers, and the move can be taken back with unmakeMove.
+   */
+  @Override
+  public UndoRecord makeMove(int cell) {
+    PlayerType mover = currentTurn;
+    UndoRecord record = undoStack.push(cell, mover, whitePassed, blackPassed, hash);
+    if (cell == UndoRecord.PASS) {
+      playerPass(mover);
+    } else {
+      hexes[cell].setPlayerType(mover);
+      flipLines(cell, mover, record);
+      setPassed(PlayerType.WHITE, false);
+      setPassed(PlayerType.BLACK, false);
+    }
+    setTurn(mover.nextPlayer());
+    return record;
+  }
 
-        if (isValidCoordinate(nextQ, nextR) && getCurrentHex(nextR, nextQ) != null
-                && getCurrentHex(nextR, nextQ).getPlayerType() == currentPlayer) {
-          for (HexShape piece : piecesToFlip) {
-            piece.setPlayerType(currentPlayer);
-          }
-          break;
-        }
+  /**
+   * Takes back the most recent move made with makeMove, in place.
+   */
+  @Override
+  public void unmakeMove(UndoRecord record) {
+    undoStack.pop(record);
+    if (!record.isPass()) {
+      PlayerType opponent = record.getMover().nextPlayer();
+      for (int i = record.nextFlipped(0); i >= 0; i = record.nextFlipped(i + 1)) {
+        hexes[i].setPlayerType(opponent);
       }
+      hexes[record.getCell()].setPlayerType(PlayerType.EMPTY);
     }
+    whitePassed = record.whitePassed;
+    blackPassed = record.blackPassed;
+    currentTurn = record.getMover();
+    hash = record.hash;
   }
 
 
@@ -189,45 +258,22 @@ public class Board implements ReadOnlyBoardModel, BoardModel {
     int r = y + this.getBoardSize() / 2;
 
     // Check if the coordinates are valid and the hex is empty
-    if (!isValidCoordinate(q, r) || getCurrentHex(r, q).getPlayerType() != PlayerType.EMPTY) {
+    if (!geometry.isOnBoard(r, q)
+            || hexes[geometry.index(r, q)].getPlayerType() != PlayerType.EMPTY) {
       return false;
     }
+    int index = geometry.index(r, q);
+    int[] own = lineBitsOf(playerType);
+    if (own == null) {
+      return false;
+    }
+    int[] opponent = lineBitsOf(playerType.nextPlayer());
 
-    PlayerType opponent = playerType.nextPlayer();
-
-    // Check each direction for a valid line of opponent's pieces
-    for (DirectionsEnum dir : DirectionsEnum.values()) {
-      int nextQ = q + dir.getQMove();
-      int nextR = r + dir.getRMove();
-
-      // Skip if the next hex is not opponent's or out of bounds
-      if (!isValidCoordinate(nextQ, nextR)) {
-        continue;
-      }
-      HexShape neighborHex = getCurrentHex(nextR, nextQ);
-      if (neighborHex == null) {
-        continue;
-      }
-
-      if (neighborHex.getPlayerType() != opponent) {
-        continue;
-      }
-
-      // Move to the next hex in the same direction
-      nextQ += dir.getQMove();
-      nextR += dir.getRMove();
-
-      // Continue moving in the direction and check for current player's piece
-      while (isValidCoordinate(nextQ, nextR)
-              && getCurrentHex(nextR, nextQ) != null
-              && getCurrentHex(nextR, nextQ).getPlayerType() == opponent) {
-        nextQ += dir.getQMove();
-        nextR += dir.getRMove();
-      }
-
-      // If a current player's piece is found, it's a valid move
-      if (isValidCoordinate(nextQ, nextR) && getCurrentHex(nextR, nextQ) != null
-              && getCurrentHex(nextR, nextQ).getPlayerType() == playerType) {
+    // Look up each line through the hex for a run of opponent's pieces it closes
+    for (int axis = 0; axis < HexGeometry.AXES; axis++) {
+      int line = geometry.lineOf(index, axis);
+      if (LinePatterns.span(lineTables[line], geometry.lineCells(line).length,
+              own[line], opponent[line], geometry.linePosition(index, axis)) != 0) {
         return true;
       }
     }
@@ -250,8 +296,8 @@ public class Board implements ReadOnlyBoardModel, BoardModel {
    */
   public void placePiece(int q, int r, PlayerType type) {
     this.getCurrentHex(r, q).setPlayerType(type);
-    whitePassed = false;
-    blackPassed = false;
+    setPassed(PlayerType.WHITE, false);
+    setPassed(PlayerType.BLACK, false);
     checkGameOver();
   }
 
@@ -259,27 +305,44 @@ public class Board implements ReadOnlyBoardModel, BoardModel {
    * Changes the state of each player if they passed or not.
    */
   public void playerPass(PlayerType playerType) {
+    setPassed(playerType, true);
+  }
+
+  /**
+   * Changes whose turn it is, keeping the position hash up to date.
+   */
+  private void setTurn(PlayerType turn) {
+    if ((turn == PlayerType.WHITE) != (currentTurn == PlayerType.WHITE)) {
+      hash ^= zobrist.turnKey();
+    }
+    currentTurn = turn;
+  }
+
+  /**
+   * Changes whether a player has passed, keeping the position hash up to date.
+   */
+  private void setPassed(PlayerType playerType, boolean passed) {
     if (playerType == PlayerType.WHITE) {
-      whitePassed = true;
+      if (whitePassed != passed) {
+        hash ^= zobrist.passKey(playerType);
+      }
+      whitePassed = passed;
     } else if (playerType == PlayerType.BLACK) {
-      blackPassed = true;
+      if (blackPassed != passed) {
+        hash ^= zobrist.passKey(playerType);
+      }
+      blackPassed = passed;
     }
   }
 
   @Override
   public int getScoreWhite() {
-    if (isGameOver()) {
-      return countPieces(PlayerType.WHITE);
-    }
-    return countPieces(PlayerType.WHITE);
+    return whiteCount;
   }
 
   @Override
   public int getScoreBlack() {
-    if (isGameOver()) {
-      return countPieces(PlayerType.BLACK);
-    }
-    return countPieces(PlayerType.BLACK);
+    return blackCount;
   }
 
 
@@ -329,33 +392,21 @@ public class Board implements ReadOnlyBoardModel, BoardModel {
    * causing the game to be over.
    */
   public boolean isBoardFull() {
-    for (int i = 0; i < boardSize; i++) {
-      for (int j = 0; j < boardSize; j++) {
-        HexShape hex = getCurrentHex(i, j);
-        if (hex == null) {
-          continue;
-        }
-        if (hex.getPlayerType() == null || hex.getPlayerType() == PlayerType.EMPTY) {
-          return false;
-        }
-      }
-    }
-    return true;
+    return emptyCount == 0;
   }
 
   /**
    * Counts the amount of pieces that exist in a board.
    */
   public int countPieces(PlayerType type) {
-    int count = 0;
-    for (int i = 0; i < boardSize; i++) {
-      for (int j = 0; j < boardSize; j++) {
-        if (getCurrentHex(i, j) != null && getCurrentHex(i, j).getPlayerType() == type) {
-          count++;
-        }
-      }
+    if (type == PlayerType.BLACK) {
+      return blackCount;
+    } else if (type == PlayerType.WHITE) {
+      return whiteCount;
+    } else if (type == PlayerType.EMPTY) {
+      return emptyCount;
     }
-    return count;
+    return 0;
   }
 
   /**
@@ -375,6 +426,21 @@ public class Board implements ReadOnlyBoardModel, BoardModel {
     return this.currentTurn;
   }
 
+  @Override
+  public PlayerType getPlayerTypeAt(int index) {
+    return hexes[index].getPlayerType();
+  }
+
+  @Override
+  public long getPositionHash() {
+    return hash;
+  }
+
+  @Override
+  public HexGeometry getGeometry() {
+    return this.geometry;
+  }
+
   /**
    * Checks whether a player has passed their turn.
    */
@@ -392,16 +458,12 @@ public class Board implements ReadOnlyBoardModel, BoardModel {
    */
   public Board deepCopy() {
     Board newBoard = new Board(this.boardSize);
-    for (int i = 0; i < boardSize; i++) {
-      for (int j = 0; j < boardSize; j++) {
-        if (this.cellsThatMakeTheBoard[i][j] != null) {
-          newBoard.cellsThatMakeTheBoard[i][j] = new HexShape(
-                  i, j, this.cellsThatMakeTheBoard[i][j].getPlayerType());
-        }
-      }
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      int index = geometry.cellAt(i);
+      newBoard.hexes[index].setPlayerType(this.hexes[index].getPlayerType());
     }
-    newBoard.whitePassed = this.whitePassed;
-    newBoard.blackPassed = this.blackPassed;
+    newBoard.setPassed(PlayerType.WHITE, this.whitePassed);
+    newBoard.setPassed(PlayerType.BLACK, this.blackPassed);
     return newBoard;
   }
 
@@ -410,48 +472,51 @@ public class Board implements ReadOnlyBoardModel, BoardModel {
    */
   public List<Move> getValidMovesWithCaptures(Player player) {
     List<Move> validMoves = new ArrayList<>();
+    MoveList moves = new MoveList(geometry.getCellCount());
+    generateMoves(player.getType(), moves);
+    for (int i = 0; i < moves.size(); i++) {
+      int index = moves.cell(i);
+      validMoves.add(new Move(geometry.moveX(index), geometry.moveY(index), moves.captures(i)));
+    }
+    return validMoves;
+  }
 
-    for (int currentRow = 0; currentRow < getBoardSize(); currentRow++) {
-      int currentHexesMade;
-      if (currentRow <= getMidPoint()) {
-        currentHexesMade = getMidPoint() + currentRow + 1;
-      } else {
-        currentHexesMade = getBoardSize() - (currentRow - getMidPoint());
-      }
-      int spacesBefore = (getBoardSize() - currentHexesMade);
-      for (int h = 0; h < currentHexesMade; h++) {
-        HexShape currentHex;
-
-        if (currentRow <= getMidPoint()) {
-          currentHex = this.getCurrentHex(currentRow, h + spacesBefore);
-
-          if (isValidMove(Integer.parseInt(currentHex.getColumn()),
-                  Integer.parseInt(currentHex.getRow()), player.getType())) {
-
-            int piecesThatAreFlipped = calculateCaptures((Integer.parseInt(currentHex.getColumn())),
-                    Integer.parseInt(currentHex.getRow()), player.getType(), this);
-
-            validMoves.add(new Move((Integer.parseInt(currentHex.getColumn())),
-                    Integer.parseInt(currentHex.getRow()), piecesThatAreFlipped));
-          }
-
-        } else {
-          currentHex = this.getCurrentHex(currentRow, h);
-
-          if (isValidMove(Integer.parseInt(currentHex.getColumn()),
-                  Integer.parseInt(currentHex.getRow()), player.getType())) {
-
-            int piecesThatAreFlipped = calculateCaptures((Integer.parseInt(currentHex.getColumn())),
-                    Integer.parseInt(currentHex.getRow()), player.getType(), this);
-
-            validMoves.add(new Move((Integer.parseInt(currentHex.getColumn())),
-                    Integer.parseInt(currentHex.getRow()), piecesThatAreFlipped));
-          }
+  @Override
+  public int generateMoves(PlayerType player, MoveList moves) {
+    moves.clear();
+    int[] own = lineBitsOf(player);
+    if (own == null) {
+      return 0;
+    }
+    int[] opponent = lineBitsOf(player.nextPlayer());
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      int index = geometry.cellAt(i);
+      if (hexes[index].getPlayerType() == PlayerType.EMPTY) {
+        int captures = capturesAt(index, own, opponent);
+        if (captures > 0) {
+          moves.add(index, captures);
         }
       }
+    }
+    return moves.size();
+  }
 
+  @Override
+  public int countMoves(PlayerType player) {
+    int[] own = lineBitsOf(player);
+    if (own == null) {
+      return 0;
     }
-    return validMoves;
+    int[] opponent = lineBitsOf(player.nextPlayer());
+    int count = 0;
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      int index = geometry.cellAt(i);
+      if (hexes[index].getPlayerType() == PlayerType.EMPTY
+              && capturesAt(index, own, opponent) > 0) {
+        count++;
+      }
+    }
+    return count;
   }
 
   /**
@@ -474,59 +539,93 @@ public class Board implements ReadOnlyBoardModel, BoardModel {
   public int calculateCaptures(int q, int r, PlayerType player, Board board) {
     int x = q + board.getBoardSize() / 2;
     int y = r + board.getBoardSize() / 2;
-    int count = 0;
-
-    PlayerType opponent = player.nextPlayer();
+    if (!geometry.isOnBoard(y, x)) {
+      return 0;
+    }
+    int[] own = lineBitsOf(player);
+    if (own == null) {
+      return 0;
+    }
+    return capturesAt(geometry.index(y, x), own, lineBitsOf(player.nextPlayer()));
+  }
 
-    for (DirectionsEnum dir : DirectionsEnum.values()) {
+  /**
+   * Returns how many pieces a piece at an index would flip, given the line
+   * bitmasks of its owner and of the opponent.
+   */
+  private int capturesAt(int index, int[] own, int[] opponent) {
+    int count = 0;
+    for (int axis = 0; axis < HexGeometry.AXES; axis++) {
+      int line = geometry.lineOf(index, axis);
+      int span = LinePatterns.span(lineTables[line], geometry.lineCells(line).length,
+              own[line], opponent[line], geometry.linePosition(index, axis));
+      count += LinePatterns.flipsBefore(span) + LinePatterns.flipsAfter(span);
+    }
+    return count;
+  }
 
-      int nextQ = x + dir.getQMove();
-      int nextR = y + dir.getRMove();
+  /**
+   * Adds an amount to the count kept for a player type.
+   */
+  private void adjustCount(PlayerType type, int amount) {
+    if (type == PlayerType.BLACK) {
+      blackCount += amount;
+    } else if (type == PlayerType.WHITE) {
+      whiteCount += amount;
+    } else {
+      emptyCount += amount;
+    }
+  }
 
-      // Skip if the next hex is not opponent's or out of bounds
-      if (!isValidCoordinate(nextQ, nextR)) {
-        continue;
-      }
-      HexShape neighborHex = getCurrentHex(nextR, nextQ);
-      if (neighborHex == null) {
-        continue;
-      }
+  /**
+   * Returns the per-line bitmasks of a player type's pieces,
+   * or null for a type that owns no pieces.
+   */
+  private int[] lineBitsOf(PlayerType type) {
+    if (type == PlayerType.BLACK) {
+      return lineBlack;
+    } else if (type == PlayerType.WHITE) {
+      return lineWhite;
+    }
+    return null;
+  }
 
-      if (neighborHex.getPlayerType() != opponent) {
-        continue;
-      }
-      List<HexShape> piecesToFlip = new ArrayList<>();
-
-      while (isValidCoordinate(nextQ, nextR) && getCurrentHex(nextR, nextQ) != null
-              && getCurrentHex(nextR, nextQ).getPlayerType() == opponent) {
-        piecesToFlip.add(getCurrentHex(nextQ, nextR));
-        nextQ += dir.getQMove();
-        nextR += dir.getRMove();
-
-        if (isValidCoordinate(nextQ, nextR) && getCurrentHex(nextR, nextQ) != null) {
-          HexShape currentHex = getCurrentHex(nextR, nextQ);
-          if (currentHex.getPlayerType() == player) {
-            count += piecesToFlip.size();
-            break;
-          }
-        }
+  /**
+   * Updates the piece counts and line bitmasks after the hex at an index
+   * changed player type. Called by the hex itself.
+   */
+  void hexChanged(int index, PlayerType before, PlayerType after) {
+    if (before == after) {
+      return;
+    }
+    adjustCount(before, -1);
+    adjustCount(after, 1);
+    hash ^= zobrist.pieceKey(before, index) ^ zobrist.pieceKey(after, index);
+    for (int axis = 0; axis < HexGeometry.AXES; axis++) {
+      int line = geometry.lineOf(index, axis);
+      int bit = 1 << geometry.linePosition(index, axis);
+      lineBlack[line] &= ~bit;
+      lineWhite[line] &= ~bit;
+      if (after == PlayerType.BLACK) {
+        lineBlack[line] |= bit;
+      } else if (after == PlayerType.WHITE) {
+        lineWhite[line] |= bit;
       }
     }
-    return count;
   }
 
   /**
    * Resets the white Passed boolean.
    */
   public void resetWhitePassed() {
-    whitePassed = false;
+    setPassed(PlayerType.WHITE, false);
   }
 
   /**
    * Resets the black Passed boolean.
    */
   public void resetBlackPassed() {
-    blackPassed = false;
+    setPassed(PlayerType.BLACK, false);
   }
 
 
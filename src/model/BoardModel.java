@@ -14,4 +14,16 @@ public interface BoardModel extends ReadOnlyBoardModel {
   void placePiece(int q, int r, PlayerType type);
 
   void addObserver(Observer o);
+
+  /**
+   * Plays a hex index, or UndoRecord.PASS, for the player whose turn it is.
+   * Flips pieces and passes the turn without notifying observers.
+   * The index must be a legal move. Returns the record that takes it back.
+   */
+  UndoRecord makeMove(int cell);
+
+  /**
+   * Takes back the most recent move made with makeMove, in place.
+   */
+  void unmakeMove(UndoRecord record);
 }
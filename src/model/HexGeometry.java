@@ -0,0 +1,353 @@
+package model;
+
+import controller.DirectionsEnum;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents the fixed layout of a hexagonal board of a given size.
+ * Every cell is given a single index, row * size + column, using the same
+ * row and column that index the board's array of hexes. The layout is
+ * immutable and shared by every board of the same size.
+ * For every hex and direction it also keeps the ray of indices walked
+ * from that hex to the edge of the board, nearest hex first, and for every
+ * hex the line it lies on along each of the three axes.
+ */
+public final class HexGeometry {
+  /**
+   * The number of line axes through every hex: rows, columns and diagonals.
+   */
+  public static final int AXES = 3;
+  private static final DirectionsEnum[] AXIS_DIRECTIONS = {
+    DirectionsEnum.EAST, DirectionsEnum.SOUTH_EAST, DirectionsEnum.SOUTH_WEST
+  };
+  private static final Map<Integer, HexGeometry> CACHE = new ConcurrentHashMap<>();
+
+  private final int size;
+  private final int midPoint;
+  private final boolean[] onBoard;
+  private final boolean[] playable;
+  private final int playableCount;
+  private final int[] cells;
+  private final int[] corners;
+  private final boolean[] corner;
+  private final boolean[] edge;
+  private final int[] deltas;
+  private final int[][] rays;
+  private final int[][] lines;
+  private final int[] lineOf;
+  private final int[] linePosition;
+
+  /**
+   * Builds the layout for a board of the given size.
+   */
+  private HexGeometry(int size) {
+    if (size < 5 || (size % 2 == 0)) {
+      throw new IllegalStateException("The game must be a minimum of size 5 and cannot be even!");
+    }
+    this.size = size;
+    this.midPoint = size / 2;
+    this.onBoard = new boolean[size * size];
+    this.playable = new boolean[size * size];
+
+    int count = 0;
+    int playables = 0;
+    for (int row = 0; row < size; row++) {
+      for (int column = 0; column < size; column++) {
+        int q = column - midPoint;
+        int r = row - midPoint;
+        if (Math.abs(q + r) <= midPoint) {
+          onBoard[index(row, column)] = true;
+          count++;
+          if (q % 2 != 0 || r % 2 != 0) {
+            playable[index(row, column)] = true;
+            playables++;
+          }
+        }
+      }
+    }
+    this.playableCount = playables;
+
+    this.cells = new int[count];
+    int next = 0;
+    for (int index = 0; index < onBoard.length; index++) {
+      if (onBoard[index]) {
+        cells[next++] = index;
+      }
+    }
+
+    int last = size - 1;
+    this.corners = new int[] {
+      index(0, midPoint), index(0, last), index(midPoint, last),
+      index(last, midPoint), index(last, 0), index(midPoint, 0)
+    };
+
+    this.corner = new boolean[size * size];
+    for (int index : corners) {
+      corner[index] = true;
+    }
+
+    DirectionsEnum[] directions = DirectionsEnum.values();
+    this.deltas = new int[directions.length];
+    for (DirectionsEnum dir : directions) {
+      deltas[dir.ordinal()] = dir.getRMove() * size + dir.getQMove();
+    }
+
+    this.rays = new int[onBoard.length * directions.length][];
+    int[] path = new int[size];
+    for (int cell : cells) {
+      for (DirectionsEnum dir : directions) {
+        int length = 0;
+        for (int step = neighbor(cell, dir); step >= 0; step = neighbor(step, dir)) {
+          path[length++] = step;
+        }
+        rays[cell * directions.length + dir.ordinal()] = Arrays.copyOf(path, length);
+      }
+    }
+
+    this.edge = new boolean[size * size];
+    for (int cell : cells) {
+      for (DirectionsEnum dir : directions) {
+        if (ray(cell, dir).length == 0) {
+          edge[cell] = true;
+        }
+      }
+    }
+
+    this.lines = new int[AXES * size][];
+    this.lineOf = new int[onBoard.length * AXES];
+    this.linePosition = new int[onBoard.length * AXES];
+    int lineCount = 0;
+    for (int axis = 0; axis < AXES; axis++) {
+      DirectionsEnum forward = AXIS_DIRECTIONS[axis];
+      for (int cell : cells) {
+        int[] backward = ray(cell, (forward.ordinal() + directions.length / 2) % directions.length);
+        if (backward.length > 0) {
+          continue;
+        }
+        int[] forwardRay = ray(cell, forward);
+        int[] line = new int[forwardRay.length + 1];
+        line[0] = cell;
+        System.arraycopy(forwardRay, 0, line, 1, forwardRay.length);
+        for (int position = 0; position < line.length; position++) {
+          lineOf[line[position] * AXES + axis] = lineCount;
+          linePosition[line[position] * AXES + axis] = position;
+        }
+        lines[lineCount++] = line;
+      }
+    }
+  }
+
+  /**
+   * Returns the shared layout for a board of the given size.
+   */
+  public static HexGeometry of(int size) {
+    HexGeometry geometry = CACHE.get(size);
+    if (geometry == null) {
+      geometry = CACHE.computeIfAbsent(size, HexGeometry::new);
+    }
+    return geometry;
+  }
+
+  /**
+   * Returns the size of the board this layout describes.
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Returns the midPoint of the board.
+   */
+  public int getMidPoint() {
+    return midPoint;
+  }
+
+  /**
+   * Returns the number of indices used by the layout, including the
+   * unused corners of the square array.
+   */
+  public int getIndexCount() {
+    return onBoard.length;
+  }
+
+  /**
+   * Returns the number of hexes on the board.
+   */
+  public int getCellCount() {
+    return cells.length;
+  }
+
+  /**
+   * Returns the index of the i-th hex on the board, in row-scan order.
+   */
+  public int cellAt(int i) {
+    return cells[i];
+  }
+
+  /**
+   * Returns the index of the hex at a certain row and column.
+   */
+  public int index(int row, int column) {
+    return row * size + column;
+  }
+
+  /**
+   * Returns the row of a certain index.
+   */
+  public int row(int index) {
+    return index / size;
+  }
+
+  /**
+   * Returns the column of a certain index.
+   */
+  public int column(int index) {
+    return index % size;
+  }
+
+  /**
+   * Returns the x coordinate a Move uses for the hex at an index.
+   */
+  public int moveX(int index) {
+    return column(index) - midPoint;
+  }
+
+  /**
+   * Returns the y coordinate a Move uses for the hex at an index.
+   */
+  public int moveY(int index) {
+    return row(index) - midPoint;
+  }
+
+  /**
+   * Returns the index of the hex at the x and y coordinates of a Move.
+   */
+  public int indexOfMove(int x, int y) {
+    return index(y + midPoint, x + midPoint);
+  }
+
+  /**
+   * Determines if a row and column name a hex of the board.
+   */
+  public boolean isOnBoard(int row, int column) {
+    return row >= 0 && row < size && column >= 0 && column < size
+            && onBoard[index(row, column)];
+  }
+
+  /**
+   * Determines if an index names a hex of the board.
+   */
+  public boolean isOnBoard(int index) {
+    return index >= 0 && index < onBoard.length && onBoard[index];
+  }
+
+  /**
+   * Determines if a hex can ever be played. A hex an even number of steps
+   * from the middle along both the row and the column never can be: two
+   * steps in any direction lead to another such hex, none of them starts
+   * filled, so no move there ever has a disc to capture against.
+   */
+  public boolean isPlayable(int index) {
+    return isOnBoard(index) && playable[index];
+  }
+
+  /**
+   * Returns the number of hexes that can ever be played.
+   */
+  public int getPlayableCount() {
+    return playableCount;
+  }
+
+  /**
+   * Returns how much an index changes when moving one step in a direction.
+   */
+  public int delta(DirectionsEnum dir) {
+    return deltas[dir.ordinal()];
+  }
+
+  /**
+   * Returns the index of the neighbouring hex in a direction,
+   * or -1 when the step leaves the board.
+   */
+  public int neighbor(int index, DirectionsEnum dir) {
+    int row = row(index) + dir.getRMove();
+    int column = column(index) + dir.getQMove();
+    if (!isOnBoard(row, column)) {
+      return -1;
+    }
+    return index(row, column);
+  }
+
+  /**
+   * Returns the indices walked from a hex to the edge of the board in a
+   * direction, nearest first, or null when the index is not on the board.
+   * The array is shared and must not be modified.
+   */
+  public int[] ray(int index, int dir) {
+    return rays[index * deltas.length + dir];
+  }
+
+  /**
+   * Returns the indices walked from a hex to the edge of the board in a
+   * direction, nearest first, or null when the index is not on the board.
+   * The array is shared and must not be modified.
+   */
+  public int[] ray(int index, DirectionsEnum dir) {
+    return ray(index, dir.ordinal());
+  }
+
+  /**
+   * Returns the indices of the six corner hexes, going clockwise from the top left.
+   * The array is shared and must not be modified.
+   */
+  public int[] getCorners() {
+    return corners;
+  }
+
+  /**
+   * Determines if an index names one of the six corner hexes.
+   */
+  public boolean isCorner(int index) {
+    return isOnBoard(index) && corner[index];
+  }
+
+  /**
+   * Determines if an index names a hex on the outer ring of the board,
+   * corners included.
+   */
+  public boolean isEdge(int index) {
+    return isOnBoard(index) && edge[index];
+  }
+
+  /**
+   * Returns the number of lines through the board along all three axes.
+   */
+  public int getLineCount() {
+    return lines.length;
+  }
+
+  /**
+   * Returns the line a hex lies on along an axis.
+   */
+  public int lineOf(int index, int axis) {
+    return lineOf[index * AXES + axis];
+  }
+
+  /**
+   * Returns where a hex sits in its line along an axis, counting from 0.
+   */
+  public int linePosition(int index, int axis) {
+    return linePosition[index * AXES + axis];
+  }
+
+  /**
+   * Returns the indices of the hexes on a line, in order along its axis.
+   * The array is shared and must not be modified.
+   */
+  public int[] lineCells(int line) {
+    return lines[line];
+  }
+}
@@ -20,6 +20,8 @@ public class HexShape {
   private final int row;
   private final int s;
   protected PlayerType currentPlayerType;
+  private Board owner;
+  private int index;
 
   /**
    * Constructor for creating a certain cell in a board.
@@ -95,7 +97,21 @@ public class HexShape {
    * Sets the current player type.
    */
   public PlayerType setPlayerType(PlayerType type) {
-    return this.currentPlayerType = type;
+    PlayerType before = getPlayerType();
+    this.currentPlayerType = type;
+    if (owner != null) {
+      owner.hexChanged(index, before, getPlayerType());
+    }
+    return type;
+  }
+
+  /**
+   * Ties this hex to the board it belongs to, so the board hears about
+   * every change of player type made through setPlayerType.
+   */
+  void attach(Board board, int boardIndex) {
+    this.owner = board;
+    this.index = boardIndex;
   }
 
   /**
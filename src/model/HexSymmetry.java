@@ -0,0 +1,233 @@
+package model;
+
+import controller.PlayerType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The twelve symmetries of a hexagonal board of a given size: the six
+ * rotations and the six reflections. Each is kept as a table giving the
+ * image of every hex index, so moving a position or a move through one is
+ * a lookup per hex. Symmetry 0 is the identity, 1 to 5 rotate by that many
+ * sixths of a turn, and 6 to 11 reflect across the axis through the top
+ * and bottom corners before rotating by that many sixths less six.
+ *
+ * <p>Two positions that are images of each other under a symmetry play out
+ * the same way, so the canonical hash of a position, the hash of whichever
+ * of its twelve images hashes least, is the same for all of them. The
+ * Zobrist keys of every hex are also kept under every symmetry side by
+ * side, so the hashes of all twelve images come from one pass over the
+ * board, or from twelve XORs per changed hex when followed move by move
+ * with SymmetricHashes. The tables are immutable and shared by every board
+ * of the same size.
+ */
+public final class HexSymmetry {
+  /**
+   * The number of symmetries of the board.
+   */
+  public static final int COUNT = 12;
+
+  private static final int ROTATIONS = 6;
+  private static final Map<Integer, HexSymmetry> CACHE = new ConcurrentHashMap<>();
+
+  private final HexGeometry geometry;
+  private final Zobrist zobrist;
+  private final int[][] images;
+  private final int[] inverses;
+  private final long[] blackKeys;
+  private final long[] whiteKeys;
+  private final long[] flipKeys;
+
+  /**
+   * Builds the symmetry tables of a board layout.
+   */
+  private HexSymmetry(HexGeometry geometry) {
+    this.geometry = geometry;
+    this.zobrist = Zobrist.of(geometry.getSize());
+    int mid = geometry.getMidPoint();
+    this.images = new int[COUNT][geometry.getIndexCount()];
+    for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+      for (int i = 0; i < geometry.getCellCount(); i++) {
+        int cell = geometry.cellAt(i);
+        int q = geometry.column(cell) - mid;
+        int r = geometry.row(cell) - mid;
+        if (symmetry >= ROTATIONS) {
+          r = -q - r;
+        }
+        for (int turn = 0; turn < symmetry % ROTATIONS; turn++) {
+          int s = -q - r;
+          q = -r;
+          r = -s;
+        }
+        images[symmetry][cell] = geometry.index(r + mid, q + mid);
+      }
+    }
+    int indices = geometry.getIndexCount();
+    this.blackKeys = new long[indices * COUNT];
+    this.whiteKeys = new long[indices * COUNT];
+    this.flipKeys = new long[indices * COUNT];
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      int cell = geometry.cellAt(i);
+      for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+        int image = images[symmetry][cell];
+        blackKeys[cell * COUNT + symmetry] = zobrist.pieceKey(PlayerType.BLACK, image);
+        whiteKeys[cell * COUNT + symmetry] = zobrist.pieceKey(PlayerType.WHITE, image);
+        flipKeys[cell * COUNT + symmetry] = zobrist.flipKey(image);
+      }
+    }
+    this.inverses = new int[COUNT];
+    for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+      for (int other = 0; other < COUNT; other++) {
+        if (undoes(other, symmetry)) {
+          inverses[symmetry] = other;
+        }
+      }
+    }
+  }
+
+  /**
+   * Determines if one symmetry sends every hex back where another took it.
+   */
+  private boolean undoes(int other, int symmetry) {
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      int cell = geometry.cellAt(i);
+      if (images[other][images[symmetry][cell]] != cell) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the shared symmetries for a board of the given size.
+   */
+  public static HexSymmetry of(int size) {
+    HexSymmetry symmetry = CACHE.get(size);
+    if (symmetry == null) {
+      symmetry = CACHE.computeIfAbsent(size, key -> new HexSymmetry(HexGeometry.of(key)));
+    }
+    return symmetry;
+  }
+
+  /**
+   * Returns the image of a hex index, or UndoRecord.PASS, under a symmetry.
+   */
+  public int map(int symmetry, int cell) {
+    return cell == UndoRecord.PASS ? cell : images[symmetry][cell];
+  }
+
+  /**
+   * Returns the symmetry that undoes another.
+   */
+  public int inverse(int symmetry) {
+    return inverses[symmetry];
+  }
+
+  /**
+   * Works out, in one pass over the board, the hash of its image under
+   * every symmetry leaving out passes, into an array of length COUNT.
+   */
+  public void hashes(ReadOnlyBoardModel board, long[] into) {
+    long turn = board.getCurrentTurn() == PlayerType.WHITE ? zobrist.turnKey() : 0L;
+    for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+      into[symmetry] = turn;
+    }
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      int cell = geometry.cellAt(i);
+      PlayerType type = board.getPlayerTypeAt(cell);
+      if (type != PlayerType.EMPTY) {
+        addPiece(into, type, cell);
+      }
+    }
+  }
+
+  /**
+   * Adds a piece of a player type at a hex to the hashes of every image,
+   * or takes it away again.
+   */
+  public void addPiece(long[] hashes, PlayerType type, int cell) {
+    long[] table = type == PlayerType.BLACK ? blackKeys : whiteKeys;
+    int base = cell * COUNT;
+    for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+      hashes[symmetry] ^= table[base + symmetry];
+    }
+  }
+
+  /**
+   * Flips the color of the piece at a hex in the hashes of every image.
+   */
+  public void flipPiece(long[] hashes, int cell) {
+    int base = cell * COUNT;
+    for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+      hashes[symmetry] ^= flipKeys[base + symmetry];
+    }
+  }
+
+  /**
+   * Passes the turn in the hashes of every image.
+   */
+  public void switchTurn(long[] hashes) {
+    for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+      hashes[symmetry] ^= zobrist.turnKey();
+    }
+  }
+
+  /**
+   * Returns the symmetry with the least of a set of image hashes, the
+   * lowest numbered one when several are equal.
+   */
+  public static int leastOf(long[] hashes) {
+    int best = 0;
+    for (int symmetry = 1; symmetry < COUNT; symmetry++) {
+      if (hashes[symmetry] < hashes[best]) {
+        best = symmetry;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Returns the part of a board's hash that comes from passes, which is
+   * the same for every image.
+   */
+  public long passKeys(ReadOnlyBoardModel board) {
+    long hash = 0L;
+    if (board.hasPlayerPassed(PlayerType.WHITE)) {
+      hash ^= zobrist.passKey(PlayerType.WHITE);
+    }
+    if (board.hasPlayerPassed(PlayerType.BLACK)) {
+      hash ^= zobrist.passKey(PlayerType.BLACK);
+    }
+    return hash;
+  }
+
+  /**
+   * Works out the hash the image of a board under a symmetry would have.
+   */
+  public long hashUnder(int symmetry, ReadOnlyBoardModel board) {
+    long[] variants = new long[COUNT];
+    hashes(board, variants);
+    return variants[symmetry] ^ passKeys(board);
+  }
+
+  /**
+   * Returns the symmetry whose image of a board has the least hash,
+   * leaving out passes, the lowest numbered one when several do.
+   */
+  public int canonicalSymmetry(ReadOnlyBoardModel board) {
+    long[] variants = new long[COUNT];
+    hashes(board, variants);
+    return leastOf(variants);
+  }
+
+  /**
+   * Returns the hash of the canonical image of a board, which every image
+   * of the board shares.
+   */
+  public long canonicalHash(ReadOnlyBoardModel board) {
+    long[] variants = new long[COUNT];
+    hashes(board, variants);
+    return variants[leastOf(variants)] ^ passKeys(board);
+  }
+}
@@ -0,0 +1,128 @@
+package model;
+
+/**
+ * Lookup tables giving, for every pattern of pieces on a line and every
+ * position on it, how many pieces a piece played there would flip toward
+ * each end of the line. A line is described by two bitmasks, one for the
+ * mover's pieces and one for the opponent's, bit i being position i.
+ * Tables are kept for lines of up to MAX_TABLE_LENGTH hexes and indexed by
+ * the base-3 pattern of the two masks; longer lines are worked out from the
+ * masks directly.
+ */
+public final class LinePatterns {
+  /**
+   * The longest line that gets a lookup table.
+   */
+  public static final int MAX_TABLE_LENGTH = 11;
+
+  private static final int[] TERNARY = new int[1 << MAX_TABLE_LENGTH];
+  private static final byte[][] TABLES = new byte[MAX_TABLE_LENGTH + 1][];
+
+  static {
+    for (int bits = 1; bits < TERNARY.length; bits++) {
+      int lowest = Integer.numberOfTrailingZeros(bits);
+      int power = 1;
+      for (int i = 0; i < lowest; i++) {
+        power *= 3;
+      }
+      TERNARY[bits] = TERNARY[bits & (bits - 1)] + power;
+    }
+  }
+
+  private LinePatterns() {
+  }
+
+  /**
+   * Returns the table for lines of a certain length, building it on first
+   * use, or null when the line is too long to have one.
+   */
+  public static synchronized byte[] tableFor(int length) {
+    if (length > MAX_TABLE_LENGTH) {
+      return null;
+    }
+    if (TABLES[length] == null) {
+      TABLES[length] = buildTable(length);
+    }
+    return TABLES[length];
+  }
+
+  /**
+   * Builds the table for one line length. Entry pattern * length + position
+   * holds the flips toward the start of the line in its high four bits and
+   * the flips toward the end in its low four bits.
+   */
+  private static byte[] buildTable(int length) {
+    int patterns = TERNARY[(1 << length) - 1] * 2 + 1;
+    byte[] table = new byte[patterns * length];
+    for (int pattern = 0; pattern < patterns; pattern++) {
+      int own = 0;
+      int opponent = 0;
+      int rest = pattern;
+      for (int i = 0; i < length; i++) {
+        int digit = rest % 3;
+        rest /= 3;
+        if (digit == 1) {
+          own |= 1 << i;
+        } else if (digit == 2) {
+          opponent |= 1 << i;
+        }
+      }
+      for (int position = 0; position < length; position++) {
+        int span = computeSpan(length, own, opponent, position);
+        table[pattern * length + position] =
+                (byte) ((flipsBefore(span) << 4) | flipsAfter(span));
+      }
+    }
+    return table;
+  }
+
+  /**
+   * Returns the flips a piece at a position on a line would make, packed as
+   * flips toward the start of the line times 256 plus flips toward the end.
+   * The table must be the one returned by tableFor for that length, or null
+   * for lines without a table. The piece at the position itself is ignored.
+   */
+  public static int span(byte[] table, int length, int own, int opponent, int position) {
+    if (table == null) {
+      return computeSpan(length, own, opponent, position);
+    }
+    int entry = table[(TERNARY[own] + 2 * TERNARY[opponent]) * length + position];
+    return ((entry & 0xF0) << 4) | (entry & 0x0F);
+  }
+
+  /**
+   * Returns how many pieces a span flips toward the start of its line.
+   */
+  public static int flipsBefore(int span) {
+    return span >>> 8;
+  }
+
+  /**
+   * Returns how many pieces a span flips toward the end of its line.
+   */
+  public static int flipsAfter(int span) {
+    return span & 0xFF;
+  }
+
+  /**
+   * Works out a span from the two masks of a line.
+   */
+  private static int computeSpan(int length, int own, int opponent, int position) {
+    int after = Integer.numberOfTrailingZeros(~opponent >>> (position + 1));
+    int closeAfter = position + 1 + after;
+    if (after == 0 || closeAfter >= length || ((own >>> closeAfter) & 1) == 0) {
+      after = 0;
+    }
+
+    int before = 0;
+    if (position > 0) {
+      before = Math.min(Integer.numberOfLeadingZeros(~opponent << (Integer.SIZE - position)),
+              position);
+      int closeBefore = position - 1 - before;
+      if (before == 0 || closeBefore < 0 || ((own >>> closeBefore) & 1) == 0) {
+        before = 0;
+      }
+    }
+    return (before << 8) | after;
+  }
+}
@@ -150,6 +150,16 @@ public class Mock extends Board
     return board.getValidMovesWithCaptures(player);
   }
 
+  /**
+   * Fills a move list for the capture strategy.
+   */
+  @Override
+  public int generateMoves(PlayerType player, MoveList moves) {
+    int count = board.generateMoves(player, moves);
+    log.append("Generating moves for ").append(player).append(": ").append(count);
+    return count;
+  }
+
   /**
    * Determines if a certain move is a corner.
    */
@@ -163,6 +173,43 @@ public class Mock extends Board
     return board.isCornerMove(move, boardSize);
   }
 
+  /**
+   * Returns the layout of the board.
+   */
+  @Override
+  public HexGeometry getGeometry() {
+    log.append("Getting board geometry.");
+    return board.getGeometry();
+  }
+
+  /**
+   * Counts the moves of a player.
+   */
+  @Override
+  public int countMoves(PlayerType player) {
+    int count = board.countMoves(player);
+    log.append("Counting moves for ").append(player).append(": ").append(count);
+    return count;
+  }
+
+  /**
+   * Returns the player type at a hex index.
+   */
+  @Override
+  public PlayerType getPlayerTypeAt(int index) {
+    log.append("Getting player type at ").append(index);
+    return board.getPlayerTypeAt(index);
+  }
+
+  /**
+   * Returns the hash of the position.
+   */
+  @Override
+  public long getPositionHash() {
+    log.append("Getting position hash.");
+    return board.getPositionHash();
+  }
+
   /**
    * Returns the log for each method for testing.
    */
@@ -0,0 +1,137 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of moves packed into ints, filled by generateMoves.
+ * Each entry holds a HexGeometry index and the number of pieces the move
+ * captures, so generating and reading moves needs no objects at all.
+ */
+public final class MoveList {
+  private static final int CAPTURE_BITS = 16;
+  private static final int CAPTURE_MASK = (1 << CAPTURE_BITS) - 1;
+
+  private int[] moves;
+  private int size = 0;
+
+  /**
+   * Creates an empty list with room for 64 moves.
+   */
+  public MoveList() {
+    this(64);
+  }
+
+  /**
+   * Creates an empty list with room for a certain number of moves.
+   */
+  public MoveList(int capacity) {
+    this.moves = new int[Math.max(capacity, 1)];
+  }
+
+  /**
+   * Packs a hex index and a capture count into one entry.
+   */
+  public static int pack(int cell, int captures) {
+    return (cell << CAPTURE_BITS) | captures;
+  }
+
+  /**
+   * Returns the hex index of a packed entry.
+   */
+  public static int cellOf(int packed) {
+    return packed >>> CAPTURE_BITS;
+  }
+
+  /**
+   * Returns the capture count of a packed entry.
+   */
+  public static int capturesOf(int packed) {
+    return packed & CAPTURE_MASK;
+  }
+
+  /**
+   * Removes every move from the list.
+   */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Adds a move to the end of the list.
+   */
+  public void add(int cell, int captures) {
+    if (size == moves.length) {
+      moves = Arrays.copyOf(moves, size * 2);
+    }
+    moves[size++] = pack(cell, captures);
+  }
+
+  /**
+   * Returns the number of moves in the list.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Determines if the list holds no moves.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the packed entry at a position in the list.
+   */
+  public int get(int i) {
+    return moves[i];
+  }
+
+  /**
+   * Replaces the packed entry at a position in the list.
+   */
+  public void set(int i, int packed) {
+    moves[i] = packed;
+  }
+
+  /**
+   * Returns the hex index of the move at a position in the list.
+   */
+  public int cell(int i) {
+    return cellOf(moves[i]);
+  }
+
+  /**
+   * Returns the capture count of the move at a position in the list.
+   */
+  public int captures(int i) {
+    return capturesOf(moves[i]);
+  }
+
+  /**
+   * Makes this list hold the same moves as another.
+   */
+  public void copyFrom(MoveList other) {
+    if (moves.length < other.size) {
+      moves = new int[other.moves.length];
+    }
+    System.arraycopy(other.moves, 0, moves, 0, other.size);
+    size = other.size;
+  }
+
+  /**
+   * Drops every move from a position in the list onward.
+   */
+  public void truncate(int newSize) {
+    size = Math.min(size, Math.max(newSize, 0));
+  }
+
+  /**
+   * Swaps the moves at two positions in the list.
+   */
+  public void swap(int i, int j) {
+    int held = moves[i];
+    moves[i] = moves[j];
+    moves[j] = held;
+  }
+}
@@ -33,6 +33,17 @@ public interface ReadOnlyBoardModel {
 
   List<Move> getValidMovesWithCaptures(Player player);
 
+  /**
+   * Clears a move list and fills it with every legal move of a player,
+   * in row-scan order, without allocating. Returns the number of moves.
+   */
+  int generateMoves(PlayerType player, MoveList moves);
+
+  /**
+   * Returns the number of legal moves of a player, without listing them.
+   */
+  int countMoves(PlayerType player);
+
   boolean isCornerMove(Move move, int boardSize);
 
   int getMidPoint();
@@ -40,4 +51,18 @@ public interface ReadOnlyBoardModel {
   Board getRegularBoard();
 
   PlayerType getCurrentTurn();
+
+  HexGeometry getGeometry();
+
+  /**
+   * Returns the player type of the hex at a HexGeometry index on the board,
+   * without creating a HexShape.
+   */
+  PlayerType getPlayerTypeAt(int index);
+
+  /**
+   * Returns the Zobrist hash of the position, including whose turn it is
+   * and which players have passed. Kept up to date as the board changes.
+   */
+  long getPositionHash();
 }
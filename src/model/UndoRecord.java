@@ -0,0 +1,118 @@
+package model;
+
+import controller.PlayerType;
+
+/**
+ * Represents everything needed to take back one move made with makeMove:
+ * the hex played, the pieces it flipped as a bitmask over HexGeometry
+ * indices, and the turn, passes and position hash before the move.
+ * Records belong to the board's undo stack and are reused once taken back,
+ * so they should not be kept after unmakeMove.
+ */
+public final class UndoRecord {
+  /**
+   * The cell given to makeMove to pass the turn.
+   */
+  public static final int PASS = -1;
+
+  final long[] flips;
+  int cell;
+  int flipCount;
+  PlayerType mover;
+  boolean whitePassed;
+  boolean blackPassed;
+  long hash;
+
+  /**
+   * Creates an empty record for a board needing a certain number of flip words.
+   */
+  UndoRecord(int words) {
+    this.flips = new long[words];
+  }
+
+  /**
+   * Clears the flips and stores the state from before a move.
+   */
+  void reset(int cell, PlayerType mover, boolean whitePassed, boolean blackPassed, long hash) {
+    for (int i = 0; i < flips.length; i++) {
+      flips[i] = 0L;
+    }
+    this.cell = cell;
+    this.flipCount = 0;
+    this.mover = mover;
+    this.whitePassed = whitePassed;
+    this.blackPassed = blackPassed;
+    this.hash = hash;
+  }
+
+  /**
+   * Marks the hex at an index as flipped by this move.
+   */
+  void addFlip(int index) {
+    flips[index >>> 6] |= 1L << index;
+    flipCount++;
+  }
+
+  /**
+   * Returns the hex index that was played, or PASS.
+   */
+  public int getCell() {
+    return cell;
+  }
+
+  /**
+   * Determines if the move was a pass.
+   */
+  public boolean isPass() {
+    return cell == PASS;
+  }
+
+  /**
+   * Returns the player who made the move.
+   */
+  public PlayerType getMover() {
+    return mover;
+  }
+
+  /**
+   * Returns the position hash from before the move.
+   */
+  public long getHashBefore() {
+    return hash;
+  }
+
+  /**
+   * Returns how many pieces the move flipped.
+   */
+  public int getFlipCount() {
+    return flipCount;
+  }
+
+  /**
+   * Determines if the hex at an index was flipped by the move.
+   */
+  public boolean isFlipped(int index) {
+    return (flips[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * Returns the first flipped index at or after fromIndex, or -1 if there
+   * is none. Loop with nextFlipped(i + 1) to visit every flipped hex.
+   */
+  public int nextFlipped(int fromIndex) {
+    int word = fromIndex >>> 6;
+    if (word >= flips.length) {
+      return -1;
+    }
+    long bits = flips[word] & (-1L << fromIndex);
+    while (true) {
+      if (bits != 0) {
+        return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+      }
+      if (++word == flips.length) {
+        return -1;
+      }
+      bits = flips[word];
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package model;
+
+import controller.PlayerType;
+
+import java.util.Arrays;
+
+/**
+ * The stack of undo records kept by a board for makeMove and unmakeMove.
+ * Records are created the first time a depth is reached and reused after,
+ * so a search that goes up and down the same depths allocates nothing.
+ */
+final class UndoStack {
+  private final int words;
+  private UndoRecord[] records = new UndoRecord[64];
+  private int depth = 0;
+
+  /**
+   * Creates a stack for a board with a certain number of hex indices.
+   */
+  UndoStack(int indexCount) {
+    this.words = (indexCount + Long.SIZE - 1) / Long.SIZE;
+  }
+
+  /**
+   * Returns a cleared record for the next move, holding the state before it.
+   */
+  UndoRecord push(int cell, PlayerType mover, boolean whitePassed, boolean blackPassed,
+                  long hash) {
+    if (depth == records.length) {
+      records = Arrays.copyOf(records, depth * 2);
+    }
+    UndoRecord record = records[depth];
+    if (record == null) {
+      record = new UndoRecord(words);
+      records[depth] = record;
+    }
+    depth++;
+    record.reset(cell, mover, whitePassed, blackPassed, hash);
+    return record;
+  }
+
+  /**
+   * Removes a record from the top of the stack.
+   * Throws an exception if the record is not the most recent move.
+   */
+  void pop(UndoRecord record) {
+    if (depth == 0 || records[depth - 1] != record) {
+      throw new IllegalStateException("Only the most recent move can be taken back.");
+    }
+    depth--;
+  }
+}
@@ -0,0 +1,275 @@
+package model;
+
+import controller.DirectionsEnum;
+import controller.PlayerType;
+
+import java.util.Arrays;
+
+/**
+ * A bitboard for boards that do not fit in a single long.
+ * Each color is a bitset spread over several longs, bit i of the set being
+ * the hex with index i in the board's HexGeometry. Shifting a bitset carries
+ * the bits that fall off one word into the next, so every one of the six
+ * directions is still a single shift and mask over the whole board.
+ */
+public class WideBitBoard extends AbstractBitBoard {
+  private static final int DIRECTIONS = DirectionsEnum.values().length;
+
+  private final int words;
+  private final long[] boardMask;
+  private final int[] shifts = new int[DIRECTIONS];
+  private final long[][] shiftMasks;
+
+  private final long[] black;
+  private final long[] white;
+
+  private final long[] empty;
+  private final long[] line;
+  private final long[] shifted;
+  private final long[] moves;
+
+  /**
+   * Creates a bitboard with the same starting position as a Board of that size.
+   * Throws an exception if the size is even or less than 5.
+   */
+  public WideBitBoard(int sizeOfBoard) {
+    super(sizeOfBoard);
+    this.words = (geometry.getIndexCount() + Long.SIZE - 1) / Long.SIZE;
+    this.boardMask = new long[words];
+    this.shiftMasks = new long[DIRECTIONS][words];
+    this.black = new long[words];
+    this.white = new long[words];
+    this.empty = new long[words];
+    this.line = new long[words];
+    this.shifted = new long[words];
+    this.moves = new long[words];
+
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      setBit(boardMask, geometry.cellAt(i));
+    }
+    for (DirectionsEnum dir : DirectionsEnum.values()) {
+      shifts[dir.ordinal()] = geometry.delta(dir);
+      for (int i = 0; i < geometry.getCellCount(); i++) {
+        int neighbor = geometry.neighbor(geometry.cellAt(i), dir);
+        if (neighbor >= 0) {
+          setBit(shiftMasks[dir.ordinal()], neighbor);
+        }
+      }
+    }
+    placeStartingPieces();
+  }
+
+  /**
+   * Creates a bitboard holding the same position, turn and passes as another board.
+   */
+  public WideBitBoard(ReadOnlyBoardModel source) {
+    this(source.getBoardSize());
+    copyPosition(source);
+  }
+
+  private static void setBit(long[] bits, int index) {
+    bits[index >>> 6] |= 1L << index;
+  }
+
+  private static void clearBit(long[] bits, int index) {
+    bits[index >>> 6] &= ~(1L << index);
+  }
+
+  private static boolean testBit(long[] bits, int index) {
+    return (bits[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * Moves every bit of a bitset one step in a direction into dst, carrying
+   * bits across word boundaries and dropping those that would leave the board.
+   */
+  private void shift(long[] src, int dir, long[] dst) {
+    int amount = shifts[dir];
+    long[] mask = shiftMasks[dir];
+    if (amount > 0) {
+      for (int i = words - 1; i > 0; i--) {
+        dst[i] = ((src[i] << amount) | (src[i - 1] >>> (Long.SIZE - amount))) & mask[i];
+      }
+      dst[0] = (src[0] << amount) & mask[0];
+    } else {
+      int right = -amount;
+      for (int i = 0; i < words - 1; i++) {
+        dst[i] = ((src[i] >>> right) | (src[i + 1] << (Long.SIZE - right))) & mask[i];
+      }
+      dst[words - 1] = (src[words - 1] >>> right) & mask[words - 1];
+    }
+  }
+
+  /**
+   * Visits the discs that a disc placed at an index would flip. When flips is
+   * not null they are added to it; the number of discs is returned either way.
+   */
+  private int flipsFor(int index, long[] own, long[] opponent, long[] flips) {
+    int count = 0;
+    for (int dir = 0; dir < DIRECTIONS; dir++) {
+      int[] ray = geometry.ray(index, dir);
+      int run = 0;
+      while (run < ray.length && testBit(opponent, ray[run])) {
+        run++;
+      }
+      if (run == 0 || run == ray.length || !testBit(own, ray[run])) {
+        continue;
+      }
+      count += run;
+      if (flips != null) {
+        for (int i = 0; i < run; i++) {
+          setBit(flips, ray[i]);
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Fills the moves scratch set with every empty hex where the player with
+   * the own bitset may play.
+   */
+  private void legalMoves(long[] own, long[] opponent) {
+    for (int i = 0; i < words; i++) {
+      empty[i] = boardMask[i] & ~(own[i] | opponent[i]);
+      moves[i] = 0L;
+    }
+    for (int dir = 0; dir < DIRECTIONS; dir++) {
+      shift(own, dir, line);
+      for (int i = 0; i < words; i++) {
+        line[i] &= opponent[i];
+      }
+      for (int repeat = 0; repeat < boardSize - 3; repeat++) {
+        shift(line, dir, shifted);
+        for (int i = 0; i < words; i++) {
+          line[i] |= shifted[i] & opponent[i];
+        }
+      }
+      shift(line, dir, shifted);
+      for (int i = 0; i < words; i++) {
+        moves[i] |= shifted[i] & empty[i];
+      }
+    }
+  }
+
+  private long[] bitsOf(PlayerType type) {
+    return type == PlayerType.BLACK ? black : white;
+  }
+
+  @Override
+  protected void setCell(int index, PlayerType type) {
+    clearBit(black, index);
+    clearBit(white, index);
+    if (type == PlayerType.BLACK) {
+      setBit(black, index);
+    } else if (type == PlayerType.WHITE) {
+      setBit(white, index);
+    }
+  }
+
+  @Override
+  protected PlayerType typeAt(int index) {
+    if (testBit(black, index)) {
+      return PlayerType.BLACK;
+    } else if (testBit(white, index)) {
+      return PlayerType.WHITE;
+    }
+    return PlayerType.EMPTY;
+  }
+
+  @Override
+  protected boolean hasFlips(int index, PlayerType player) {
+    return countFlips(index, player) > 0;
+  }
+
+  @Override
+  protected int countFlips(int index, PlayerType player) {
+    return flipsFor(index, bitsOf(player), bitsOf(player.nextPlayer()), null);
+  }
+
+  @Override
+  protected void applyFlips(int index, PlayerType player) {
+    long[] own = bitsOf(player);
+    long[] opponent = bitsOf(player.nextPlayer());
+    Arrays.fill(line, 0L);
+    flipsFor(index, own, opponent, line);
+    for (int i = 0; i < words; i++) {
+      own[i] |= line[i];
+      opponent[i] &= ~line[i];
+      hashFlips(line[i], i);
+    }
+  }
+
+  @Override
+  protected void playMove(int index, PlayerType player, UndoRecord record) {
+    long[] own = bitsOf(player);
+    long[] opponent = bitsOf(player.nextPlayer());
+    record.flipCount = flipsFor(index, own, opponent, record.flips);
+    for (int i = 0; i < words; i++) {
+      own[i] |= record.flips[i];
+      opponent[i] &= ~record.flips[i];
+    }
+    setBit(own, index);
+  }
+
+  @Override
+  protected void takeBackMove(int index, PlayerType player, UndoRecord record) {
+    long[] own = bitsOf(player);
+    long[] opponent = bitsOf(player.nextPlayer());
+    for (int i = 0; i < words; i++) {
+      own[i] &= ~record.flips[i];
+      opponent[i] |= record.flips[i];
+    }
+    clearBit(own, index);
+  }
+
+  @Override
+  protected void addMoves(PlayerType player, MoveList validMoves) {
+    long[] own = bitsOf(player);
+    long[] opponent = bitsOf(player.nextPlayer());
+    legalMoves(own, opponent);
+    for (int i = 0; i < words; i++) {
+      long word = moves[i];
+      while (word != 0) {
+        int index = i * Long.SIZE + Long.numberOfTrailingZeros(word);
+        word &= word - 1;
+        validMoves.add(index, flipsFor(index, own, opponent, null));
+      }
+    }
+  }
+
+  @Override
+  protected int countLegalMoves(PlayerType player) {
+    legalMoves(bitsOf(player), bitsOf(player.nextPlayer()));
+    int count = 0;
+    for (int i = 0; i < words; i++) {
+      count += Long.bitCount(moves[i]);
+    }
+    return count;
+  }
+
+  @Override
+  public boolean isBoardFull() {
+    for (int i = 0; i < words; i++) {
+      if ((black[i] | white[i]) != boardMask[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int countPieces(PlayerType type) {
+    int count = 0;
+    for (int i = 0; i < words; i++) {
+      if (type == PlayerType.BLACK) {
+        count += Long.bitCount(black[i]);
+      } else if (type == PlayerType.WHITE) {
+        count += Long.bitCount(white[i]);
+      } else {
+        count += Long.bitCount(boardMask[i] & ~(black[i] | white[i]));
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,118 @@
+package model;
+
+import controller.PlayerType;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The random 64-bit keys used to hash positions of a certain board size.
+ * A position's hash is the XOR of the key of every piece on the board, the
+ * turn key while it is white's turn, and the pass key of each player who
+ * has passed. Keys come from a fixed seed, so hashes are the same on every
+ * run and can be stored in files.
+ */
+public final class Zobrist {
+  private static final long SEED = 0x5EED_4E78_2E52_1L;
+  private static final Map<Integer, Zobrist> CACHE = new ConcurrentHashMap<>();
+
+  private final long[] blackKeys;
+  private final long[] whiteKeys;
+  private final long[] flipKeys;
+  private final long turnKey;
+  private final long whitePassKey;
+  private final long blackPassKey;
+
+  /**
+   * Draws the keys for a board of a certain size.
+   */
+  private Zobrist(int size) {
+    HexGeometry geometry = HexGeometry.of(size);
+    SplittableRandom random = new SplittableRandom(SEED + size);
+    int count = geometry.getIndexCount();
+    this.blackKeys = new long[count];
+    this.whiteKeys = new long[count];
+    this.flipKeys = new long[count];
+    for (int i = 0; i < count; i++) {
+      blackKeys[i] = random.nextLong();
+      whiteKeys[i] = random.nextLong();
+      flipKeys[i] = blackKeys[i] ^ whiteKeys[i];
+    }
+    this.turnKey = random.nextLong();
+    this.whitePassKey = random.nextLong();
+    this.blackPassKey = random.nextLong();
+  }
+
+  /**
+   * Returns the shared keys for a board of a certain size.
+   */
+  public static Zobrist of(int size) {
+    Zobrist keys = CACHE.get(size);
+    if (keys == null) {
+      keys = CACHE.computeIfAbsent(size, Zobrist::new);
+    }
+    return keys;
+  }
+
+  /**
+   * Returns the key of a piece of a player type at an index,
+   * or 0 for an empty hex.
+   */
+  public long pieceKey(PlayerType type, int index) {
+    if (type == PlayerType.BLACK) {
+      return blackKeys[index];
+    } else if (type == PlayerType.WHITE) {
+      return whiteKeys[index];
+    }
+    return 0L;
+  }
+
+  /**
+   * Returns the change in hash when the piece at an index flips color.
+   */
+  public long flipKey(int index) {
+    return flipKeys[index];
+  }
+
+  /**
+   * Returns the key included while it is white's turn.
+   */
+  public long turnKey() {
+    return turnKey;
+  }
+
+  /**
+   * Returns the key included while a player has passed.
+   */
+  public long passKey(PlayerType type) {
+    if (type == PlayerType.WHITE) {
+      return whitePassKey;
+    } else if (type == PlayerType.BLACK) {
+      return blackPassKey;
+    }
+    return 0L;
+  }
+
+  /**
+   * Works out the hash of a board from scratch.
+   */
+  public long hashOf(ReadOnlyBoardModel board) {
+    HexGeometry geometry = board.getGeometry();
+    long hash = 0L;
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      int index = geometry.cellAt(i);
+      hash ^= pieceKey(board.getPlayerTypeAt(index), index);
+    }
+    if (board.getCurrentTurn() == PlayerType.WHITE) {
+      hash ^= turnKey;
+    }
+    if (board.hasPlayerPassed(PlayerType.WHITE)) {
+      hash ^= whitePassKey;
+    }
+    if (board.hasPlayerPassed(PlayerType.BLACK)) {
+      hash ^= blackPassKey;
+    }
+    return hash;
+  }
+}
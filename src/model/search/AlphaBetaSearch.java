@@ -0,0 +1,440 @@
+package model.search;
+
+import controller.PlayerType;
+import model.BoardModel;
+import model.HexSymmetry;
+import model.MoveList;
+import model.UndoRecord;
+
+import java.util.Arrays;
+
+/**
+ * A negamax alpha-beta search with principal variation search and
+ * aspiration windows. The search plays moves on the board in place with
+ * makeMove and unmakeMove, and keeps one move list per ply, so it allocates
+ * nothing once it has reached its deepest ply. Scores are from the point of
+ * view of the player to move, and positions at the search horizon are
+ * scored by an Evaluator that follows every move. Results can be kept in
+ * a TranspositionTable, which may be shared with searches on other threads.
+ * A search itself is not thread safe; use one per thread, although stop
+ * may be called from any thread.
+ */
+public final class AlphaBetaSearch {
+  /**
+   * A score larger than any position can reach.
+   */
+  public static final int INFINITY = 10_000_000;
+
+  /**
+   * The score of a won game, before adding the final disc differential.
+   */
+  public static final int WIN = 1_000_000;
+
+  /**
+   * The deadline of a search that may run for as long as it needs.
+   */
+  public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+  private static final int ASPIRATION_WINDOW = 16;
+  private static final int CLOCK_CHECK_MASK = 1023;
+
+  private final TranspositionTable table;
+  private final Evaluator evaluator;
+  private final SymmetricHashes symmetric;
+  private final MoveOrdering ordering = new MoveOrdering();
+  private MoveList[] movesByPly = new MoveList[0];
+  private int bestCell = UndoRecord.PASS;
+  private long nodes = 0;
+  private long deadline = NO_DEADLINE;
+  private volatile boolean stopRequested = false;
+  private boolean stopped = false;
+
+  /**
+   * Creates a search that keeps no table of results.
+   */
+  public AlphaBetaSearch() {
+    this(null);
+  }
+
+  /**
+   * Creates a search that keeps its results in a table, or none if the
+   * table is null, and scores positions with a BasicEvaluator.
+   */
+  public AlphaBetaSearch(TranspositionTable table) {
+    this(table, new BasicEvaluator());
+  }
+
+  /**
+   * Creates a search that keeps its results in a table, or none if the
+   * table is null, and scores positions with an evaluator of its own.
+   * Throws an exception if the evaluator is null.
+   */
+  public AlphaBetaSearch(TranspositionTable table, Evaluator evaluator) {
+    this(table, evaluator, false);
+  }
+
+  /**
+   * Creates a search that keeps its results in a table, or none if the
+   * table is null, and scores positions with an evaluator of its own. With
+   * symmetric keys, the table is keyed by canonical hash and its moves are
+   * kept as played on the canonical image, so a position and its images
+   * under the board's symmetries share one entry. Every search sharing a
+   * table must key it the same way.
+   * Throws an exception if the evaluator is null.
+   */
+  public AlphaBetaSearch(TranspositionTable table, Evaluator evaluator, boolean symmetricKeys) {
+    if (evaluator == null) {
+      throw new IllegalArgumentException("The evaluator cannot be null.");
+    }
+    this.table = table;
+    this.evaluator = evaluator;
+    this.symmetric = symmetricKeys && table != null ? new SymmetricHashes() : null;
+  }
+
+  /**
+   * Determines if a score is a proven win or loss rather than an
+   * evaluation, so that searching deeper cannot change the result.
+   */
+  public static boolean isProven(int score) {
+    return Math.abs(score) >= WIN / 2;
+  }
+
+  /**
+   * Prepares for a new search that must give up once System.nanoTime()
+   * passes a deadline, or NO_DEADLINE to search without a time limit. The
+   * search also gives up when its thread is interrupted.
+   */
+  public void start(long deadline) {
+    this.deadline = deadline;
+    this.stopRequested = false;
+    this.stopped = false;
+  }
+
+  /**
+   * Asks a running search to give up as soon as possible. Safe to call
+   * from another thread.
+   */
+  public void stop() {
+    stopRequested = true;
+  }
+
+  /**
+   * Determines if the last search gave up before finishing, in which case
+   * its score and best move must not be used.
+   */
+  public boolean isStopped() {
+    return stopped;
+  }
+
+  /**
+   * Counts a visited position and, every so often, checks the clock, any
+   * request to stop and whether the thread was interrupted. Returns true
+   * once the search should give up.
+   */
+  private boolean visit() {
+    if ((++nodes & CLOCK_CHECK_MASK) == 0
+            && (stopRequested || System.nanoTime() > deadline
+            || Thread.currentThread().isInterrupted())) {
+      stopped = true;
+    }
+    return stopped;
+  }
+
+  /**
+   * Searches a board to a certain depth with a window centred on a guessed
+   * score, widening the window and searching again whenever the result
+   * falls outside it. Returns the exact score of the position, or 0 if
+   * the search was stopped.
+   */
+  public int searchAspirated(BoardModel board, int depth, int guess) {
+    int delta = ASPIRATION_WINDOW;
+    int alpha = Math.max(guess - delta, -INFINITY);
+    int beta = Math.min(guess + delta, INFINITY);
+    while (true) {
+      int score = searchRoot(board, depth, alpha, beta);
+      if (stopped) {
+        return 0;
+      }
+      if (score <= alpha && alpha > -INFINITY) {
+        delta *= 2;
+        alpha = Math.max(score - delta, -INFINITY);
+      } else if (score >= beta && beta < INFINITY) {
+        delta *= 2;
+        beta = Math.min(score + delta, INFINITY);
+      } else {
+        return score;
+      }
+    }
+  }
+
+  /**
+   * Searches a board to a certain depth inside a window and remembers the
+   * best move found. The move from the previous search is tried first when
+   * it is still legal, and the rest are ordered by a MoveOrdering. Returns the score, which is only a bound when it
+   * falls outside the window. A stopped search keeps the previous best move.
+   */
+  public int searchRoot(BoardModel board, int depth, int alpha, int beta) {
+    evaluator.reset(board);
+    if (symmetric != null) {
+      symmetric.reset(board);
+    }
+    MoveList moves = movesAt(0);
+    PlayerType side = board.getCurrentTurn();
+    if (board.generateMoves(side, moves) == 0) {
+      int score = negamax(board, depth, alpha, beta, 0);
+      if (!stopped) {
+        bestCell = UndoRecord.PASS;
+      }
+      return score;
+    }
+    ordering.order(board, moves, 0, bestCell);
+
+    if (visit()) {
+      return 0;
+    }
+    int originalAlpha = alpha;
+    int best = -INFINITY;
+    int bestIndex = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      UndoRecord record = board.makeMove(moves.cell(i));
+      moveMade(record);
+      int score;
+      if (i == 0) {
+        score = -negamax(board, depth - 1, -beta, -alpha, 1);
+      } else {
+        score = -negamax(board, depth - 1, -alpha - 1, -alpha, 1);
+        if (score > alpha && score < beta) {
+          score = -negamax(board, depth - 1, -beta, -score, 1);
+        }
+      }
+      moveUnmade(record);
+      board.unmakeMove(record);
+      if (stopped) {
+        return 0;
+      }
+      if (score > best) {
+        best = score;
+        bestIndex = i;
+        if (score > alpha) {
+          alpha = score;
+          if (score >= beta) {
+            break;
+          }
+        }
+      }
+    }
+    bestCell = moves.cell(bestIndex);
+    if (table != null) {
+      table.store(keyOf(board), depth, best, boundOf(best, originalAlpha, beta),
+              toTable(bestCell));
+    }
+    return best;
+  }
+
+  /**
+   * Returns the score of a position searched to a certain depth, from the
+   * point of view of the player to move. A player without moves passes,
+   * and the game ends when neither player can move.
+   */
+  private int negamax(BoardModel board, int depth, int alpha, int beta, int ply) {
+    if (visit()) {
+      return 0;
+    }
+    if (board.isBoardFull()) {
+      return finalScore(board);
+    }
+    if (depth <= 0) {
+      return evaluator.evaluate(board);
+    }
+
+    long hash = keyOf(board);
+    int hashMove = UndoRecord.PASS;
+    if (table != null) {
+      long entry = table.probe(hash);
+      if (entry != TranspositionTable.MISS) {
+        hashMove = fromTable(TranspositionTable.moveOf(entry));
+        if (TranspositionTable.depthOf(entry) >= depth) {
+          int stored = TranspositionTable.scoreOf(entry);
+          int bound = TranspositionTable.boundOf(entry);
+          if (bound == TranspositionTable.EXACT
+                  || (bound == TranspositionTable.LOWER && stored >= beta)
+                  || (bound == TranspositionTable.UPPER && stored <= alpha)) {
+            return stored;
+          }
+        }
+      }
+    }
+
+    MoveList moves = movesAt(ply);
+    PlayerType side = board.getCurrentTurn();
+    if (board.generateMoves(side, moves) == 0) {
+      if (board.generateMoves(side.nextPlayer(), moves) == 0) {
+        return finalScore(board);
+      }
+      UndoRecord record = board.makeMove(UndoRecord.PASS);
+      moveMade(record);
+      int score = -negamax(board, depth, -beta, -alpha, ply + 1);
+      moveUnmade(record);
+      board.unmakeMove(record);
+      return score;
+    }
+    ordering.order(board, moves, ply, hashMove);
+
+    int originalAlpha = alpha;
+    int best = -INFINITY;
+    int bestIndex = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      UndoRecord record = board.makeMove(moves.cell(i));
+      moveMade(record);
+      int score;
+      if (i == 0) {
+        score = -negamax(board, depth - 1, -beta, -alpha, ply + 1);
+      } else {
+        score = -negamax(board, depth - 1, -alpha - 1, -alpha, ply + 1);
+        if (score > alpha && score < beta) {
+          score = -negamax(board, depth - 1, -beta, -score, ply + 1);
+        }
+      }
+      moveUnmade(record);
+      board.unmakeMove(record);
+      if (stopped) {
+        return 0;
+      }
+      if (score > best) {
+        best = score;
+        bestIndex = i;
+        if (score > alpha) {
+          alpha = score;
+          if (score >= beta) {
+            ordering.recordCutoff(side, moves.cell(i), ply, depth);
+            break;
+          }
+        }
+      }
+    }
+    if (table != null) {
+      table.store(hash, depth, best, boundOf(best, originalAlpha, beta),
+              toTable(moves.cell(bestIndex)));
+    }
+    return best;
+  }
+
+  /**
+   * Tells the evaluator, and the symmetric hashes if any, of a move just made.
+   */
+  private void moveMade(UndoRecord record) {
+    evaluator.moveMade(record);
+    if (symmetric != null) {
+      symmetric.moveMade(record);
+    }
+  }
+
+  /**
+   * Tells the evaluator, and the symmetric hashes if any, of a move about
+   * to be taken back.
+   */
+  private void moveUnmade(UndoRecord record) {
+    evaluator.moveUnmade(record);
+    if (symmetric != null) {
+      symmetric.moveUnmade(record);
+    }
+  }
+
+  /**
+   * Returns the key of a board's position in the table.
+   */
+  private long keyOf(BoardModel board) {
+    return symmetric == null ? board.getPositionHash() : symmetric.canonicalHash(board);
+  }
+
+  /**
+   * Returns a move of the current position as the table keeps it.
+   */
+  private int toTable(int cell) {
+    if (symmetric == null) {
+      return cell;
+    }
+    return symmetric.getSymmetry().map(symmetric.canonicalSymmetry(), cell);
+  }
+
+  /**
+   * Returns a move kept in the table as a move of the current position.
+   */
+  private int fromTable(int cell) {
+    if (symmetric == null) {
+      return cell;
+    }
+    HexSymmetry symmetry = symmetric.getSymmetry();
+    return symmetry.map(symmetry.inverse(symmetric.canonicalSymmetry()), cell);
+  }
+
+  /**
+   * Returns the table bound of a score searched with a window.
+   */
+  private static int boundOf(int score, int alpha, int beta) {
+    if (score <= alpha) {
+      return TranspositionTable.UPPER;
+    } else if (score >= beta) {
+      return TranspositionTable.LOWER;
+    }
+    return TranspositionTable.EXACT;
+  }
+
+  /**
+   * Returns the score of a finished game for the player to move:
+   * a win or loss by the final disc differential, or 0 for a draw.
+   */
+  private int finalScore(BoardModel board) {
+    PlayerType side = board.getCurrentTurn();
+    int difference = board.countPieces(side) - board.countPieces(side.nextPlayer());
+    if (difference > 0) {
+      return WIN + difference;
+    } else if (difference < 0) {
+      return -WIN + difference;
+    }
+    return 0;
+  }
+
+  /**
+   * Returns the move list for a ply, creating it the first time the ply is reached.
+   */
+  private MoveList movesAt(int ply) {
+    if (ply >= movesByPly.length) {
+      movesByPly = Arrays.copyOf(movesByPly, Math.max(ply + 1, movesByPly.length * 2));
+    }
+    if (movesByPly[ply] == null) {
+      movesByPly[ply] = new MoveList();
+    }
+    return movesByPly[ply];
+  }
+
+  /**
+   * Returns the hex index of the best move found by the last search,
+   * or UndoRecord.PASS if the player had to pass.
+   */
+  public int getBestCell() {
+    return bestCell;
+  }
+
+  /**
+   * Forgets the best move of earlier searches, before searching a new position.
+   */
+  public void clearBestCell() {
+    bestCell = UndoRecord.PASS;
+  }
+
+  /**
+   * Halves the move ordering history and forgets its killer moves, before
+   * searching the position of a new turn.
+   */
+  public void ageHistory() {
+    ordering.age();
+  }
+
+  /**
+   * Returns the number of positions visited since this search was created.
+   */
+  public long getNodes() {
+    return nodes;
+  }
+}
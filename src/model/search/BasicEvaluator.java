@@ -0,0 +1,49 @@
+package model.search;
+
+import controller.PlayerType;
+import model.HexGeometry;
+import model.ReadOnlyBoardModel;
+import model.UndoRecord;
+
+/**
+ * An evaluator that scores a position from corners held, mobility and
+ * discs, looking only at the board, so it keeps no state between moves.
+ */
+public final class BasicEvaluator implements Evaluator {
+  private static final int CORNER_WEIGHT = 20;
+  private static final int MOBILITY_WEIGHT = 4;
+
+  @Override
+  public void reset(ReadOnlyBoardModel board) {
+    // Nothing is kept between positions.
+  }
+
+  @Override
+  public void moveMade(UndoRecord record) {
+    // Nothing is kept between positions.
+  }
+
+  @Override
+  public void moveUnmade(UndoRecord record) {
+    // Nothing is kept between positions.
+  }
+
+  @Override
+  public int evaluate(ReadOnlyBoardModel board) {
+    PlayerType side = board.getCurrentTurn();
+    PlayerType opponent = side.nextPlayer();
+    HexGeometry geometry = board.getGeometry();
+    int corners = 0;
+    for (int corner : geometry.getCorners()) {
+      PlayerType type = board.getPlayerTypeAt(corner);
+      if (type == side) {
+        corners++;
+      } else if (type == opponent) {
+        corners--;
+      }
+    }
+    int mobility = board.countMoves(side) - board.countMoves(opponent);
+    int discs = board.countPieces(side) - board.countPieces(opponent);
+    return CORNER_WEIGHT * corners + MOBILITY_WEIGHT * mobility + discs;
+  }
+}
@@ -0,0 +1,291 @@
+package model.search;
+
+import controller.PlayerType;
+import model.HexGeometry;
+import model.ReadOnlyBoardModel;
+
+import java.util.Arrays;
+
+/**
+ * Tracks the regions of connected empty hexes on a board, with the size of
+ * each region and how many have an odd size, as pieces are placed and taken
+ * back during a search. Hexes that can never be played belong to no region.
+ *
+ * <p>Regions are kept in a union-find forest with a circular list of members
+ * per region. Filling a hex whose empty neighbours form one unbroken arc
+ * around it cannot split its region, so only the region's size changes;
+ * otherwise just that region is rebuilt from its members. Every change is
+ * written to a trail, so placements are taken back, last first, by
+ * restoring the trail rather than by searching the board again.
+ */
+public final class EmptyRegions {
+  private static final int DIRECTIONS = 6;
+  private static final int PARENT = 0;
+  private static final int SIZE = 1;
+  private static final int NEXT = 2;
+  private static final int PREVIOUS = 3;
+  private static final int EMPTY = 4;
+
+  private HexGeometry geometry;
+  private int[][] state = new int[5][0];
+  private int[] members = new int[0];
+  private int regions = 0;
+  private int oddRegions = 0;
+  private int[] trailAt = new int[64];
+  private int[] trailValue = new int[64];
+  private int trailSize = 0;
+  private int[] frameTrail = new int[16];
+  private int[] frameRegions = new int[16];
+  private int[] frameOddRegions = new int[16];
+  private int frames = 0;
+
+  /**
+   * Finds the regions of a board from scratch and forgets every placement.
+   */
+  public void reset(ReadOnlyBoardModel board) {
+    geometry = board.getGeometry();
+    int indices = geometry.getIndexCount();
+    if (members.length != indices) {
+      state = new int[5][indices];
+      members = new int[indices];
+    }
+    Arrays.fill(state[EMPTY], 0);
+    regions = 0;
+    oddRegions = 0;
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      int cell = geometry.cellAt(i);
+      makeSingle(cell);
+      if (geometry.isPlayable(cell) && board.getPlayerTypeAt(cell) == PlayerType.EMPTY) {
+        state[EMPTY][cell] = 1;
+        regions++;
+        oddRegions++;
+      }
+    }
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      int cell = geometry.cellAt(i);
+      if (state[EMPTY][cell] == 1) {
+        joinNeighbors(cell);
+      }
+    }
+    trailSize = 0;
+    frames = 0;
+  }
+
+  /**
+   * Fills a hex, splitting its region if it held the region together.
+   * Filling a hex that is not in a region changes nothing, but must still
+   * be taken back.
+   */
+  public void placePiece(int cell) {
+    pushFrame();
+    if (state[EMPTY][cell] == 0) {
+      return;
+    }
+    int root = find(cell);
+    int size = state[SIZE][root];
+    write(EMPTY, cell, 0);
+    if (countEmptyArcs(cell) <= 1) {
+      int previous = state[PREVIOUS][cell];
+      int next = state[NEXT][cell];
+      write(NEXT, previous, next);
+      write(PREVIOUS, next, previous);
+      write(SIZE, root, size - 1);
+      if (size == 1) {
+        regions--;
+      }
+      oddRegions += ((size - 1) & 1) - (size & 1);
+      return;
+    }
+
+    int count = 0;
+    for (int member = state[NEXT][cell]; member != cell; member = state[NEXT][member]) {
+      members[count++] = member;
+    }
+    regions += count - 1;
+    oddRegions += count - (size & 1);
+    for (int i = 0; i < count; i++) {
+      int member = members[i];
+      write(PARENT, member, member);
+      write(SIZE, member, 1);
+      write(NEXT, member, member);
+      write(PREVIOUS, member, member);
+    }
+    for (int i = 0; i < count; i++) {
+      joinNeighbors(members[i]);
+    }
+  }
+
+  /**
+   * Takes back the last placement that has not been taken back yet.
+   * Throws an exception if there is none.
+   */
+  public void undoPlacement() {
+    if (frames == 0) {
+      throw new IllegalStateException("There is no placement to take back.");
+    }
+    frames--;
+    int mark = frameTrail[frames];
+    int indices = members.length;
+    while (trailSize > mark) {
+      trailSize--;
+      int at = trailAt[trailSize];
+      state[at / indices][at % indices] = trailValue[trailSize];
+    }
+    regions = frameRegions[frames];
+    oddRegions = frameOddRegions[frames];
+  }
+
+  /**
+   * Returns the number of hexes in the region of an empty hex,
+   * or 0 if the hex is filled or can never be played.
+   */
+  public int regionSize(int cell) {
+    return state[EMPTY][cell] == 0 ? 0 : state[SIZE][find(cell)];
+  }
+
+  /**
+   * Determines if an empty hex lies in a region with an odd number of hexes.
+   */
+  public boolean isOddRegion(int cell) {
+    return (regionSize(cell) & 1) == 1;
+  }
+
+  /**
+   * Returns a number naming the region of an empty hex, the same for every
+   * hex of the region until the next placement or undo.
+   */
+  public int regionOf(int cell) {
+    return find(cell);
+  }
+
+  /**
+   * Returns the number of regions of empty hexes.
+   */
+  public int getRegionCount() {
+    return regions;
+  }
+
+  /**
+   * Returns the number of regions with an odd number of empty hexes.
+   */
+  public int getOddRegionCount() {
+    return oddRegions;
+  }
+
+  /**
+   * Returns the number of arcs of empty neighbours going around a hex.
+   */
+  private int countEmptyArcs(int cell) {
+    int arcs = 0;
+    boolean before = isEmptyNeighbor(cell, DIRECTIONS - 1);
+    for (int dir = 0; dir < DIRECTIONS; dir++) {
+      boolean empty = isEmptyNeighbor(cell, dir);
+      if (empty && !before) {
+        arcs++;
+      }
+      before = empty;
+    }
+    return arcs;
+  }
+
+  /**
+   * Determines if the neighbour of a hex in a direction is in a region.
+   */
+  private boolean isEmptyNeighbor(int cell, int dir) {
+    int[] ray = geometry.ray(cell, dir);
+    return ray.length > 0 && state[EMPTY][ray[0]] == 1;
+  }
+
+  /**
+   * Joins the region of an empty hex with those of its empty neighbours.
+   */
+  private void joinNeighbors(int cell) {
+    for (int dir = 0; dir < DIRECTIONS; dir++) {
+      int[] ray = geometry.ray(cell, dir);
+      if (ray.length > 0 && state[EMPTY][ray[0]] == 1) {
+        union(cell, ray[0]);
+      }
+    }
+  }
+
+  /**
+   * Merges the regions of two empty hexes, hanging the smaller tree under
+   * the larger and splicing their member lists together.
+   */
+  private void union(int a, int b) {
+    int rootA = find(a);
+    int rootB = find(b);
+    if (rootA == rootB) {
+      return;
+    }
+    int sizeA = state[SIZE][rootA];
+    int sizeB = state[SIZE][rootB];
+    if (sizeA < sizeB) {
+      int swap = rootA;
+      rootA = rootB;
+      rootB = swap;
+    }
+    write(PARENT, rootB, rootA);
+    write(SIZE, rootA, sizeA + sizeB);
+    regions--;
+    oddRegions += ((sizeA + sizeB) & 1) - (sizeA & 1) - (sizeB & 1);
+
+    int afterA = state[NEXT][a];
+    int afterB = state[NEXT][b];
+    write(NEXT, a, afterB);
+    write(PREVIOUS, afterB, a);
+    write(NEXT, b, afterA);
+    write(PREVIOUS, afterA, b);
+  }
+
+  /**
+   * Returns the root of the tree holding a hex. Paths are not compressed,
+   * so that every change stays on the trail.
+   */
+  private int find(int cell) {
+    int[] parent = state[PARENT];
+    while (parent[cell] != cell) {
+      cell = parent[cell];
+    }
+    return cell;
+  }
+
+  /**
+   * Makes a hex a region of its own, without recording it on the trail.
+   */
+  private void makeSingle(int cell) {
+    state[PARENT][cell] = cell;
+    state[SIZE][cell] = 1;
+    state[NEXT][cell] = cell;
+    state[PREVIOUS][cell] = cell;
+  }
+
+  /**
+   * Changes one entry of the state, remembering its old value on the trail.
+   */
+  private void write(int table, int cell, int value) {
+    if (trailSize == trailAt.length) {
+      trailAt = Arrays.copyOf(trailAt, trailSize * 2);
+      trailValue = Arrays.copyOf(trailValue, trailSize * 2);
+    }
+    trailAt[trailSize] = table * members.length + cell;
+    trailValue[trailSize] = state[table][cell];
+    trailSize++;
+    state[table][cell] = value;
+  }
+
+  /**
+   * Remembers where the trail and counts stood before a placement.
+   */
+  private void pushFrame() {
+    if (frames == frameTrail.length) {
+      frameTrail = Arrays.copyOf(frameTrail, frames * 2);
+      frameRegions = Arrays.copyOf(frameRegions, frames * 2);
+      frameOddRegions = Arrays.copyOf(frameOddRegions, frames * 2);
+    }
+    frameTrail[frames] = trailSize;
+    frameRegions[frames] = regions;
+    frameOddRegions[frames] = oddRegions;
+    frames++;
+  }
+}
@@ -0,0 +1,237 @@
+package model.search;
+
+import controller.PlayerType;
+import model.BoardModel;
+import model.HexGeometry;
+import model.MoveList;
+import model.UndoRecord;
+
+import java.util.Arrays;
+
+/**
+ * Searches a position to the end of the game and finds its exact final
+ * disc differential, or only whether it is a win, loss or draw, which
+ * needs far fewer positions. Moves that leave the opponent the fewest
+ * replies are tried first, and among equals, moves into empty regions
+ * with an odd number of hexes, which tend to give the last move there.
+ * The regions are kept up to date move by move in an EmptyRegions.
+ * Stable discs bound the final result, so a position whose stable discs
+ * already decide it against the window is not searched.
+ * All scratch space is kept per ply, so solving allocates nothing once
+ * the deepest ply has been reached.
+ */
+public final class EndgameSolver {
+  private static final int CLOCK_CHECK_MASK = 1023;
+  private static final int MOBILITY_ORDER_EMPTIES = 7;
+
+  private MoveList[] movesByPly = new MoveList[0];
+  private int[][] keysByPly = new int[0][];
+  private final EmptyRegions regions = new EmptyRegions();
+  private final StableDiscs stableDiscs = new StableDiscs();
+  private int deadHexes = 0;
+  private int maxMoves = 0;
+  private int bestCell = UndoRecord.PASS;
+  private long nodes = 0;
+  private long deadline = AlphaBetaSearch.NO_DEADLINE;
+  private volatile boolean stopRequested = false;
+  private boolean stopped = false;
+
+  /**
+   * Prepares for a new solve that must give up once System.nanoTime()
+   * passes a deadline, or AlphaBetaSearch.NO_DEADLINE for no time limit.
+   * The solve also gives up when its thread is interrupted.
+   */
+  public void start(long deadline) {
+    this.deadline = deadline;
+    this.stopRequested = false;
+    this.stopped = false;
+  }
+
+  /**
+   * Asks a running solve to give up as soon as possible. Safe to call
+   * from another thread.
+   */
+  public void stop() {
+    stopRequested = true;
+  }
+
+  /**
+   * Determines if the last solve gave up before finishing, in which case
+   * its result and best move must not be used.
+   */
+  public boolean isStopped() {
+    return stopped;
+  }
+
+  /**
+   * Solves a position for the player to move. In exact mode, returns the
+   * final disc differential with best play. Otherwise returns 1 for a win,
+   * 0 for a draw and -1 for a loss. The best move is kept for getBestCell.
+   * Returns 0 if the solve was stopped.
+   */
+  public int solve(BoardModel board, boolean exact) {
+    regions.reset(board);
+    stableDiscs.reset(board);
+    deadHexes = board.getGeometry().getCellCount() - board.getGeometry().getPlayableCount();
+    maxMoves = board.getGeometry().getCellCount();
+    bestCell = UndoRecord.PASS;
+    int cells = board.getGeometry().getCellCount();
+    int alpha = exact ? -cells - 1 : -1;
+    int beta = exact ? cells + 1 : 1;
+    int score = negamax(board, alpha, beta, 0);
+    if (stopped) {
+      return 0;
+    }
+    return exact ? score : Integer.signum(score);
+  }
+
+  /**
+   * Returns the final disc differential of a position for the player to
+   * move, or a bound on it when it falls outside the window. The best move
+   * at the root is remembered.
+   */
+  private int negamax(BoardModel board, int alpha, int beta, int ply) {
+    if ((++nodes & CLOCK_CHECK_MASK) == 0
+            && (stopRequested || System.nanoTime() > deadline
+            || Thread.currentThread().isInterrupted())) {
+      stopped = true;
+    }
+    if (stopped) {
+      return 0;
+    }
+    PlayerType side = board.getCurrentTurn();
+    if (board.isBoardFull()) {
+      return board.countPieces(side) - board.countPieces(side.nextPlayer());
+    }
+    if (ply > 0) {
+      int mostDiscs = board.getGeometry().getCellCount() - deadHexes;
+      int upper = mostDiscs - 2 * stableDiscs.count(side.nextPlayer());
+      if (upper <= alpha) {
+        return upper;
+      }
+      int lower = 2 * stableDiscs.count(side) - mostDiscs;
+      if (lower >= beta) {
+        return lower;
+      }
+    }
+
+    MoveList moves = movesAt(ply);
+    if (board.generateMoves(side, moves) == 0) {
+      if (board.countMoves(side.nextPlayer()) == 0) {
+        return board.countPieces(side) - board.countPieces(side.nextPlayer());
+      }
+      UndoRecord record = board.makeMove(UndoRecord.PASS);
+      stableDiscs.moveMade(record);
+      int score = -negamax(board, -beta, -alpha, ply + 1);
+      stableDiscs.moveUnmade(record);
+      board.unmakeMove(record);
+      return score;
+    }
+    orderMoves(board, moves, keysByPly[ply]);
+
+    int best = -Integer.MAX_VALUE;
+    int bestIndex = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      UndoRecord record = board.makeMove(moves.cell(i));
+      regions.placePiece(moves.cell(i));
+      stableDiscs.moveMade(record);
+      int score;
+      if (i == 0) {
+        score = -negamax(board, -beta, -alpha, ply + 1);
+      } else {
+        score = -negamax(board, -alpha - 1, -alpha, ply + 1);
+        if (score > alpha && score < beta) {
+          score = -negamax(board, -beta, -score, ply + 1);
+        }
+      }
+      stableDiscs.moveUnmade(record);
+      regions.undoPlacement();
+      board.unmakeMove(record);
+      if (stopped) {
+        return 0;
+      }
+      if (score > best) {
+        best = score;
+        bestIndex = i;
+        if (score > alpha) {
+          alpha = score;
+          if (score >= beta) {
+            break;
+          }
+        }
+      }
+    }
+    if (ply == 0) {
+      bestCell = moves.cell(bestIndex);
+    }
+    return best;
+  }
+
+  /**
+   * Sorts a move list so that moves leaving the opponent the fewest
+   * replies come first, breaking ties with moves into odd empty regions.
+   * Close to the end only the region parity is used, since counting
+   * replies would cost more than it saves.
+   */
+  private void orderMoves(BoardModel board, MoveList moves, int[] keys) {
+    HexGeometry geometry = board.getGeometry();
+    int empties = board.countPieces(PlayerType.EMPTY)
+            - (geometry.getCellCount() - geometry.getPlayableCount());
+    for (int i = 0; i < moves.size(); i++) {
+      int cell = moves.cell(i);
+      int key = regions.isOddRegion(cell) ? 0 : 1;
+      if (empties > MOBILITY_ORDER_EMPTIES) {
+        UndoRecord record = board.makeMove(cell);
+        key += 2 * board.countMoves(board.getCurrentTurn());
+        board.unmakeMove(record);
+      }
+      keys[i] = key;
+    }
+    for (int i = 1; i < moves.size(); i++) {
+      int key = keys[i];
+      int move = moves.get(i);
+      int j = i - 1;
+      while (j >= 0 && keys[j] > key) {
+        keys[j + 1] = keys[j];
+        moves.set(j + 1, moves.get(j));
+        j--;
+      }
+      keys[j + 1] = key;
+      moves.set(j + 1, move);
+    }
+  }
+
+  /**
+   * Returns the move list for a ply, creating it and its sort keys the
+   * first time the ply is reached.
+   */
+  private MoveList movesAt(int ply) {
+    if (ply >= movesByPly.length) {
+      int length = Math.max(ply + 1, movesByPly.length * 2);
+      movesByPly = Arrays.copyOf(movesByPly, length);
+      keysByPly = Arrays.copyOf(keysByPly, length);
+    }
+    if (movesByPly[ply] == null) {
+      movesByPly[ply] = new MoveList();
+    }
+    if (keysByPly[ply] == null || keysByPly[ply].length < maxMoves) {
+      keysByPly[ply] = new int[maxMoves];
+    }
+    return movesByPly[ply];
+  }
+
+  /**
+   * Returns the hex index of the best move found by the last solve,
+   * or UndoRecord.PASS if the player had to pass.
+   */
+  public int getBestCell() {
+    return bestCell;
+  }
+
+  /**
+   * Returns the number of positions visited since this solver was created.
+   */
+  public long getNodes() {
+    return nodes;
+  }
+}
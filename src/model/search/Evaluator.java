@@ -0,0 +1,36 @@
+package model.search;
+
+import model.ReadOnlyBoardModel;
+import model.UndoRecord;
+
+/**
+ * Represents a way for a search to score positions it does not search any
+ * deeper. An evaluator may keep its own account of the position, which it
+ * builds in reset and keeps up to date as the search makes and takes back
+ * moves, so that scoring a position is cheap. An evaluator belongs to one
+ * search and does not need to be thread safe.
+ */
+public interface Evaluator {
+
+  /**
+   * Forgets any earlier position and starts following a board, before a
+   * search of it begins.
+   */
+  void reset(ReadOnlyBoardModel board);
+
+  /**
+   * Follows a move, or pass, just made on the board with makeMove.
+   */
+  void moveMade(UndoRecord record);
+
+  /**
+   * Follows a move, or pass, about to be taken back with unmakeMove.
+   */
+  void moveUnmade(UndoRecord record);
+
+  /**
+   * Returns an estimate of the score of the board for the player to move,
+   * well inside plus or minus AlphaBetaSearch.WIN.
+   */
+  int evaluate(ReadOnlyBoardModel board);
+}
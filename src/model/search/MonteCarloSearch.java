@@ -0,0 +1,225 @@
+package model.search;
+
+import controller.PlayerType;
+import model.AbstractBitBoard;
+import model.MoveList;
+import model.ReadOnlyBoardModel;
+import model.UndoRecord;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A Monte-Carlo tree search using UCT selection and random playouts.
+ * The tree lives in a NodeArena and is grown by several threads at once,
+ * with virtual loss keeping them on different branches. Between moves the
+ * subtree of the position actually reached is copied into a second arena,
+ * so the next search starts with the playouts already spent on it.
+ */
+public final class MonteCarloSearch {
+  private NodeArena tree;
+  private NodeArena spare;
+  private AbstractBitBoard rootBoard;
+  private final PlayoutWorker[] workers;
+  private final Future<?>[] running;
+  private final ExecutorService helperPool;
+
+  /**
+   * Creates a search whose tree holds up to a certain number of nodes,
+   * running on a certain number of threads.
+   * Throws an exception if the capacity is less than 2 or the thread
+   * count is less than 1.
+   */
+  public MonteCarloSearch(int capacity, int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("The search needs at least 1 thread.");
+    }
+    this.tree = new NodeArena(capacity);
+    this.spare = new NodeArena(capacity);
+    this.workers = new PlayoutWorker[threads];
+    for (int i = 0; i < threads; i++) {
+      workers[i] = new PlayoutWorker(0x9E3779B97F4A7C15L * (i + 1));
+    }
+    this.running = new Future<?>[threads - 1];
+    this.helperPool = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1,
+        task -> {
+          Thread thread = new Thread(task, "playout-helper");
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  /**
+   * Makes a position, with a certain player to move, the root of the tree.
+   * When the position is the root or is reached from it by one or two moves
+   * already in the tree, that subtree is kept; otherwise the tree starts over.
+   */
+  public void setRoot(ReadOnlyBoardModel board, PlayerType toMove) {
+    AbstractBitBoard position = AbstractBitBoard.copyOf(board);
+    if (position.getCurrentTurn() != toMove) {
+      position.switchTurns();
+    }
+    int node = rootBoard == null ? -1 : findNode(position.getPositionHash());
+    if (node > 0) {
+      tree.copySubtreeInto(node, spare);
+      NodeArena old = tree;
+      tree = spare;
+      spare = old;
+    } else if (node < 0) {
+      tree.clear();
+    }
+    rootBoard = position;
+  }
+
+  /**
+   * Returns the node of the tree whose position has a certain hash, looking
+   * at the root, its children and its grandchildren, or -1 if there is none.
+   */
+  private int findNode(long hash) {
+    if (rootBoard.getPositionHash() == hash) {
+      return 0;
+    }
+    int first = tree.firstChild(0);
+    for (int child = first; first > 0 && child < first + tree.childCount(0); child++) {
+      UndoRecord move = rootBoard.makeMove(tree.move(child));
+      int found = -1;
+      if (rootBoard.getPositionHash() == hash) {
+        found = child;
+      }
+      int grandFirst = tree.firstChild(child);
+      for (int grandchild = grandFirst; found < 0 && grandFirst > 0
+              && grandchild < grandFirst + tree.childCount(child); grandchild++) {
+        UndoRecord reply = rootBoard.makeMove(tree.move(grandchild));
+        if (rootBoard.getPositionHash() == hash) {
+          found = grandchild;
+        }
+        rootBoard.unmakeMove(reply);
+      }
+      rootBoard.unmakeMove(move);
+      if (found > 0) {
+        return found;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Runs playouts from the root until the deadline passes or a certain
+   * number of playouts have run, then returns the hex index of the most
+   * visited move, or UndoRecord.PASS if the player to move has no moves.
+   * Throws an exception if setRoot was never called or a helper failed.
+   */
+  public int search(long deadline, int maxPlayouts) {
+    if (rootBoard == null) {
+      throw new IllegalStateException("The search has no root position.");
+    }
+    if (!expandRoot()) {
+      return UndoRecord.PASS;
+    }
+
+    AtomicInteger playoutsLeft = new AtomicInteger(maxPlayouts);
+    NodeArena searched = tree;
+    for (PlayoutWorker worker : workers) {
+      worker.reset(rootBoard);
+    }
+    for (int i = 1; i < workers.length; i++) {
+      PlayoutWorker worker = workers[i];
+      running[i - 1] = helperPool.submit(() -> worker.run(searched, deadline, playoutsLeft));
+    }
+    workers[0].run(searched, deadline, playoutsLeft);
+    waitForHelpers(playoutsLeft);
+    return mostVisitedMove();
+  }
+
+  /**
+   * Expands the root if it is not expanded yet. Returns false if the player
+   * to move has no legal moves, in which case the player must pass.
+   */
+  private boolean expandRoot() {
+    int first = tree.firstChild(0);
+    if (first > 0) {
+      return tree.move(first) != UndoRecord.PASS;
+    }
+    MoveList moves = new MoveList();
+    int count = rootBoard.generateMoves(rootBoard.getCurrentTurn(), moves);
+    if (count == 0) {
+      return false;
+    }
+    int[] cells = new int[count];
+    for (int i = 0; i < count; i++) {
+      cells[i] = moves.cell(i);
+    }
+    if (first != NodeArena.UNEXPANDED || !tree.claim(0) || !tree.expand(0, cells, count)) {
+      tree.clear();
+      tree.claim(0);
+      tree.expand(0, cells, count);
+    }
+    return true;
+  }
+
+  /**
+   * Ends the playouts of every helper and waits for them to finish.
+   * Throws an exception if a helper failed.
+   */
+  private void waitForHelpers(AtomicInteger playoutsLeft) {
+    playoutsLeft.set(0);
+    boolean interrupted = false;
+    for (int i = 0; i < running.length; i++) {
+      while (true) {
+        try {
+          running[i].get();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          throw new IllegalStateException("A playout helper failed.", e.getCause());
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Returns the hex index of the root's most visited child.
+   */
+  private int mostVisitedMove() {
+    int first = tree.firstChild(0);
+    int best = first;
+    for (int child = first; child < first + tree.childCount(0); child++) {
+      if (tree.visits(child) > tree.visits(best)) {
+        best = child;
+      }
+    }
+    return tree.move(best);
+  }
+
+  /**
+   * Returns the number of playouts run since this search was created.
+   */
+  public long getPlayouts() {
+    long playouts = 0;
+    for (PlayoutWorker worker : workers) {
+      playouts += worker.getPlayouts();
+    }
+    return playouts;
+  }
+
+  /**
+   * Returns the number of playouts that have gone through the root.
+   */
+  public int getRootVisits() {
+    return tree.visits(0);
+  }
+
+  /**
+   * Returns the number of nodes in the tree.
+   */
+  public int getTreeSize() {
+    return tree.size();
+  }
+}
@@ -0,0 +1,144 @@
+package model.search;
+
+import controller.PlayerType;
+import model.BoardModel;
+import model.HexGeometry;
+import model.MoveList;
+import model.UndoRecord;
+
+import java.util.Arrays;
+
+/**
+ * Decides the order in which a search tries moves, since alpha-beta prunes
+ * the most when the best move comes first. The move from the transposition
+ * table goes first, then the two killer moves of the ply, which last caused
+ * a cutoff among its siblings, then the rest by history score: how often and
+ * how deeply the same hex caused a cutoff for the same player. Hexes with
+ * equal history are ordered by their kind, corners and then edges first,
+ * like GoForCornersStrategy but for all six corners.
+ *
+ * <p>History is halved between turns, so it follows the game as it moves on.
+ * An ordering belongs to one search and is not thread safe.
+ */
+public final class MoveOrdering {
+  private static final int HASH_MOVE_KEY = Integer.MAX_VALUE;
+  private static final int FIRST_KILLER_KEY = 1 << 30;
+  private static final int SECOND_KILLER_KEY = FIRST_KILLER_KEY - 1;
+  private static final int HISTORY_LIMIT = 1 << 24;
+  private static final int CORNER_PRIOR = 16;
+  private static final int EDGE_PRIOR = 4;
+
+  private HexGeometry geometry;
+  private int[] priors = new int[0];
+  private int[] history = new int[0];
+  private int[] killers = new int[0];
+  private int[] keys = new int[0];
+
+  /**
+   * Sorts the moves of a position, best first, for a search at a certain
+   * ply, trying a hash move first when it is among them.
+   */
+  public void order(BoardModel board, MoveList moves, int ply, int hashMove) {
+    prepare(board.getGeometry());
+    int colorOffset = colorOffset(board.getCurrentTurn());
+    int firstKiller = UndoRecord.PASS;
+    int secondKiller = UndoRecord.PASS;
+    if (2 * ply < killers.length) {
+      firstKiller = killers[2 * ply];
+      secondKiller = killers[2 * ply + 1];
+    }
+    int count = moves.size();
+    if (keys.length < count) {
+      keys = new int[Math.max(count, 2 * keys.length)];
+    }
+    for (int i = 0; i < count; i++) {
+      int cell = moves.cell(i);
+      if (cell == hashMove) {
+        keys[i] = HASH_MOVE_KEY;
+      } else if (cell == firstKiller) {
+        keys[i] = FIRST_KILLER_KEY;
+      } else if (cell == secondKiller) {
+        keys[i] = SECOND_KILLER_KEY;
+      } else {
+        keys[i] = history[colorOffset + cell] + priors[cell];
+      }
+    }
+    for (int i = 1; i < count; i++) {
+      int key = keys[i];
+      int move = moves.get(i);
+      int j = i - 1;
+      while (j >= 0 && keys[j] < key) {
+        keys[j + 1] = keys[j];
+        moves.set(j + 1, moves.get(j));
+        j--;
+      }
+      keys[j + 1] = key;
+      moves.set(j + 1, move);
+    }
+  }
+
+  /**
+   * Remembers that a move by a player caused a cutoff at a certain ply with
+   * a certain depth left, making it a killer there and raising its history.
+   */
+  public void recordCutoff(PlayerType side, int cell, int ply, int depth) {
+    if (2 * ply + 1 >= killers.length) {
+      int length = Math.max(2 * ply + 2, 2 * killers.length);
+      int old = killers.length;
+      killers = Arrays.copyOf(killers, length);
+      Arrays.fill(killers, old, length, UndoRecord.PASS);
+    }
+    if (killers[2 * ply] != cell) {
+      killers[2 * ply + 1] = killers[2 * ply];
+      killers[2 * ply] = cell;
+    }
+    int slot = colorOffset(side) + cell;
+    history[slot] += depth * depth;
+    if (history[slot] > HISTORY_LIMIT) {
+      for (int i = 0; i < history.length; i++) {
+        history[i] /= 2;
+      }
+    }
+  }
+
+  /**
+   * Halves every history score and forgets the killers, before searching
+   * the position of a new turn.
+   */
+  public void age() {
+    for (int i = 0; i < history.length; i++) {
+      history[i] /= 2;
+    }
+    Arrays.fill(killers, UndoRecord.PASS);
+  }
+
+  /**
+   * Returns where the history scores of a player start.
+   */
+  private int colorOffset(PlayerType side) {
+    return side == PlayerType.BLACK ? 0 : priors.length;
+  }
+
+  /**
+   * Sizes the tables and works out the hex priors for a board layout,
+   * forgetting everything learned on another layout.
+   */
+  private void prepare(HexGeometry layout) {
+    if (layout == geometry) {
+      return;
+    }
+    geometry = layout;
+    int indices = layout.getIndexCount();
+    priors = new int[indices];
+    history = new int[2 * indices];
+    Arrays.fill(killers, UndoRecord.PASS);
+    for (int i = 0; i < layout.getCellCount(); i++) {
+      int cell = layout.cellAt(i);
+      if (layout.isCorner(cell)) {
+        priors[cell] = CORNER_PRIOR;
+      } else if (layout.isEdge(cell)) {
+        priors[cell] = EDGE_PRIOR;
+      }
+    }
+  }
+}
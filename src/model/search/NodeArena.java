@@ -0,0 +1,216 @@
+package model.search;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The nodes of a Monte-Carlo search tree, stored as parallel primitive
+ * arrays instead of one object per node, so a tree of millions of nodes
+ * is allocated once and creates no garbage. The children of a node are
+ * stored next to each other, and node 0 is the root.
+ *
+ * <p>Visits and values are updated atomically, and a node is expanded by
+ * the one thread that wins a compare-and-set on it, so many threads may
+ * grow the same tree at once.
+ */
+public final class NodeArena {
+  /**
+   * The first child of a node that has not been expanded yet.
+   */
+  public static final int UNEXPANDED = 0;
+
+  /**
+   * The first child of a node being expanded by another thread.
+   */
+  public static final int EXPANDING = -1;
+
+  /**
+   * The first child of a node where the game is over.
+   */
+  public static final int TERMINAL = -2;
+
+  private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+  private static final VarHandle FLOATS = MethodHandles.arrayElementVarHandle(float[].class);
+
+  private final int[] firstChild;
+  private final int[] childCount;
+  private final int[] move;
+  private final int[] visits;
+  private final float[] values;
+  private final AtomicInteger size = new AtomicInteger(1);
+
+  /**
+   * Creates an arena holding up to a certain number of nodes, with an empty root.
+   * Throws an exception if the capacity is less than 2.
+   */
+  public NodeArena(int capacity) {
+    if (capacity < 2) {
+      throw new IllegalArgumentException("The arena must hold at least 2 nodes.");
+    }
+    this.firstChild = new int[capacity];
+    this.childCount = new int[capacity];
+    this.move = new int[capacity];
+    this.visits = new int[capacity];
+    this.values = new float[capacity];
+  }
+
+  /**
+   * Removes every node except an empty root.
+   */
+  public void clear() {
+    firstChild[0] = UNEXPANDED;
+    childCount[0] = 0;
+    visits[0] = 0;
+    values[0] = 0f;
+    size.set(1);
+  }
+
+  /**
+   * Returns the number of nodes in use.
+   */
+  public int size() {
+    return Math.min(size.get(), firstChild.length);
+  }
+
+  /**
+   * Returns the number of nodes the arena can hold.
+   */
+  public int capacity() {
+    return firstChild.length;
+  }
+
+  /**
+   * Claims an unexpanded node for expansion. Returns true for exactly one
+   * caller, who must then call expand or release.
+   */
+  public boolean claim(int node) {
+    return INTS.compareAndSet(firstChild, node, UNEXPANDED, EXPANDING);
+  }
+
+  /**
+   * Gives up a claimed node, leaving it unexpanded.
+   */
+  public void release(int node) {
+    INTS.setRelease(firstChild, node, UNEXPANDED);
+  }
+
+  /**
+   * Marks a claimed node as a finished game, with no children.
+   */
+  public void markTerminal(int node) {
+    INTS.setRelease(firstChild, node, TERMINAL);
+  }
+
+  /**
+   * Gives a claimed node children for the moves in an array, and publishes
+   * them to other threads. Returns false, leaving the node claimed, when
+   * the arena has no room left.
+   */
+  public boolean expand(int node, int[] moves, int count) {
+    if (size.get() + count > firstChild.length) {
+      return false;
+    }
+    int start = size.getAndAdd(count);
+    if (start + count > firstChild.length) {
+      return false;
+    }
+    for (int i = 0; i < count; i++) {
+      int child = start + i;
+      firstChild[child] = UNEXPANDED;
+      childCount[child] = 0;
+      move[child] = moves[i];
+      visits[child] = 0;
+      values[child] = 0f;
+    }
+    childCount[node] = count;
+    INTS.setRelease(firstChild, node, start);
+    return true;
+  }
+
+  /**
+   * Returns the first child of a node, or UNEXPANDED, EXPANDING or TERMINAL.
+   */
+  public int firstChild(int node) {
+    return (int) INTS.getAcquire(firstChild, node);
+  }
+
+  /**
+   * Returns the number of children of an expanded node.
+   */
+  public int childCount(int node) {
+    return childCount[node];
+  }
+
+  /**
+   * Returns the hex index played to reach a node, or UndoRecord.PASS.
+   */
+  public int move(int node) {
+    return move[node];
+  }
+
+  /**
+   * Returns the number of times a node has been visited, counting
+   * visits still in progress.
+   */
+  public int visits(int node) {
+    return (int) INTS.getOpaque(visits, node);
+  }
+
+  /**
+   * Returns the total reward of a node, for the player who moved into it.
+   */
+  public float value(int node) {
+    return (float) FLOATS.getOpaque(values, node);
+  }
+
+  /**
+   * Counts a visit to a node before its playout finishes. Until the reward
+   * is added the visit counts as a loss, which steers other threads away.
+   */
+  public void addVisit(int node) {
+    INTS.getAndAdd(visits, node, 1);
+  }
+
+  /**
+   * Adds the reward of a finished playout to a node.
+   */
+  public void addValue(int node, float reward) {
+    FLOATS.getAndAdd(values, node, reward);
+  }
+
+  /**
+   * Replaces the nodes of another arena with a copy of the subtree under
+   * a node of this one, which becomes the other arena's root. Only call
+   * this while no thread is searching either arena.
+   */
+  public void copySubtreeInto(int root, NodeArena target) {
+    int limit = target.firstChild.length;
+    target.firstChild[0] = root;
+    target.move[0] = move[root];
+    target.visits[0] = visits[root];
+    target.values[0] = values[root];
+    int next = 1;
+    for (int node = 0; node < next; node++) {
+      int source = target.firstChild[node];
+      int first = firstChild[source];
+      int count = childCount[source];
+      if (first <= 0 || next + count > limit) {
+        target.firstChild[node] = first == TERMINAL ? TERMINAL : UNEXPANDED;
+        target.childCount[node] = 0;
+        continue;
+      }
+      target.firstChild[node] = next;
+      target.childCount[node] = count;
+      for (int i = 0; i < count; i++) {
+        int child = next + i;
+        target.firstChild[child] = first + i;
+        target.move[child] = move[first + i];
+        target.visits[child] = visits[first + i];
+        target.values[child] = values[first + i];
+      }
+      next += count;
+    }
+    target.size.set(next);
+  }
+}
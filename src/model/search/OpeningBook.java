@@ -0,0 +1,192 @@
+package model.search;
+
+import model.HexSymmetry;
+import model.ReadOnlyBoardModel;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The best moves of the opening positions of one board size, read from a
+ * file made by an OpeningBookBuilder. Positions are keyed by their
+ * canonical hash, so all twelve images of a position share one entry, and
+ * the move is kept as played on the canonical image.
+ *
+ * <p>The file is a header naming the board size and the number of entries,
+ * then entries sorted by key, each a long key, a short hex index and a
+ * short score from black's point of view. The file is mapped into memory
+ * rather than read, and looking a position up is a binary search over the
+ * mapping, so opening a book costs nothing up front and holds nothing on
+ * the heap. A book is read only and may be shared by every thread.
+ */
+public final class OpeningBook {
+  /**
+   * The result of a lookup for a position the book does not hold.
+   */
+  public static final int NOT_FOUND = -2;
+
+  private static final int MAGIC = 0x4845584F;
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 16;
+  private static final int ENTRY_BYTES = 12;
+
+  private final HexSymmetry symmetry;
+  private final int size;
+  private final ByteBuffer entries;
+  private final int count;
+
+  /**
+   * Wraps the entries of a book for a board size.
+   */
+  private OpeningBook(int size, ByteBuffer entries, int count) {
+    this.symmetry = HexSymmetry.of(size);
+    this.size = size;
+    this.entries = entries;
+    this.count = count;
+  }
+
+  /**
+   * Returns a book for a board size that holds no positions.
+   */
+  public static OpeningBook empty(int size) {
+    return new OpeningBook(size, ByteBuffer.allocate(0), 0);
+  }
+
+  /**
+   * Maps a book file into memory.
+   * Throws an exception if the file cannot be read or is not a book.
+   */
+  public static OpeningBook open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC
+              || buffer.getInt(4) != VERSION) {
+        throw new IOException("Not an opening book file.");
+      }
+      int size = buffer.getInt(8);
+      int count = buffer.getInt(12);
+      if (buffer.limit() != HEADER_BYTES + (long) count * ENTRY_BYTES) {
+        throw new IOException("The opening book is cut short.");
+      }
+      buffer.position(HEADER_BYTES);
+      return new OpeningBook(size, buffer.slice(), count);
+    }
+  }
+
+  /**
+   * Maps the book for a board size from a file in the current directory
+   * named opening-book-SIZE.bin, or returns an empty book when there is
+   * no such file.
+   * Throws an exception if the file exists but is not a book for that size.
+   */
+  public static OpeningBook forSize(int size) {
+    Path path = Paths.get("opening-book-" + size + ".bin");
+    if (!Files.exists(path)) {
+      return empty(size);
+    }
+    try {
+      OpeningBook book = open(path);
+      if (book.size != size) {
+        throw new IllegalStateException(path + " is for another board size.");
+      }
+      return book;
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read " + path + ": " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Writes a book for a board size to a stream from parallel arrays of
+   * canonical keys, moves on the canonical images and scores from black's
+   * point of view, sorting the entries by key.
+   * Throws an exception if the arrays differ in length or a key repeats.
+   */
+  public static void write(OutputStream stream, int size, long[] keys, int[] cells,
+                           int[] scores) throws IOException {
+    if (keys.length != cells.length || keys.length != scores.length) {
+      throw new IllegalArgumentException("Every key needs one move and one score.");
+    }
+    Integer[] order = new Integer[keys.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(size);
+    out.writeInt(keys.length);
+    for (int i = 0; i < order.length; i++) {
+      if (i > 0 && keys[order[i]] == keys[order[i - 1]]) {
+        throw new IllegalArgumentException("A position appears twice in the book.");
+      }
+      out.writeLong(keys[order[i]]);
+      out.writeShort(cells[order[i]]);
+      out.writeShort(Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, scores[order[i]])));
+    }
+    out.flush();
+  }
+
+  /**
+   * Returns the book move for the player whose turn it is on a board, as
+   * a hex index of that board or UndoRecord.PASS, or NOT_FOUND when the
+   * book does not hold the position.
+   */
+  public int lookup(ReadOnlyBoardModel board) {
+    if (count == 0 || board.getGeometry().getSize() != size) {
+      return NOT_FOUND;
+    }
+    long[] hashes = new long[HexSymmetry.COUNT];
+    symmetry.hashes(board, hashes);
+    int canonical = HexSymmetry.leastOf(hashes);
+    int entry = find(hashes[canonical] ^ symmetry.passKeys(board));
+    if (entry < 0) {
+      return NOT_FOUND;
+    }
+    int cell = entries.getShort(entry * ENTRY_BYTES + Long.BYTES);
+    return symmetry.map(symmetry.inverse(canonical), cell);
+  }
+
+  /**
+   * Returns the entry holding a canonical key, or -1 if there is none.
+   */
+  private int find(long key) {
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      long found = entries.getLong(middle * ENTRY_BYTES);
+      if (found < key) {
+        low = middle + 1;
+      } else if (found > key) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the number of positions in the book.
+   */
+  public int getEntryCount() {
+    return count;
+  }
+
+  /**
+   * Returns the board size the book is for.
+   */
+  public int getSize() {
+    return size;
+  }
+}
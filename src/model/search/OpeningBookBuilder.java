@@ -0,0 +1,155 @@
+package model.search;
+
+import controller.PlayerType;
+import model.AbstractBitBoard;
+import model.HexSymmetry;
+import model.MoveList;
+import model.UndoRecord;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Builds the opening book of a board size offline: every position that
+ * can arise in the first few plies from the starting position is searched
+ * to a fixed depth, and its best move is written to a book file. Positions
+ * that are images of each other under a symmetry are searched only once.
+ * The searches are shared out over a number of threads, each with its own
+ * search and transposition table, keyed by canonical hash since the
+ * opening is where symmetric positions meet most often.
+ */
+public final class OpeningBookBuilder {
+  private static final int TABLE_MEGABYTES = 16;
+
+  private final int size;
+  private final int plies;
+  private final int depth;
+  private final int threads;
+  private final Supplier<Evaluator> evaluators;
+  private final HexSymmetry symmetry;
+
+  /**
+   * Creates a builder for a board size that covers a certain number of
+   * plies, searching each position to a certain depth over a number of
+   * threads with evaluators from a supplier.
+   * Throws an exception if a number is not positive or the supplier is null.
+   */
+  public OpeningBookBuilder(int size, int plies, int depth, int threads,
+                            Supplier<Evaluator> evaluators) {
+    if (plies < 1 || depth < 1 || threads < 1) {
+      throw new IllegalArgumentException("The plies, depth and threads must be positive.");
+    }
+    if (evaluators == null) {
+      throw new IllegalArgumentException("The evaluator supplier cannot be null.");
+    }
+    this.size = size;
+    this.plies = plies;
+    this.depth = depth;
+    this.threads = threads;
+    this.evaluators = evaluators;
+    this.symmetry = HexSymmetry.of(size);
+  }
+
+  /**
+   * Returns one board for every position, up to symmetry, that can be
+   * reached from the start in fewer plies than the book covers and in
+   * which the player to move has a move.
+   */
+  public List<AbstractBitBoard> positions() {
+    List<AbstractBitBoard> found = new ArrayList<>();
+    Set<Long> seen = new HashSet<>();
+    List<AbstractBitBoard> level = new ArrayList<>();
+    level.add(AbstractBitBoard.create(size));
+    seen.add(symmetry.canonicalHash(level.get(0)));
+    MoveList moves = new MoveList();
+    for (int ply = 0; ply < plies && !level.isEmpty(); ply++) {
+      List<AbstractBitBoard> next = new ArrayList<>();
+      for (AbstractBitBoard board : level) {
+        int count = board.generateMoves(board.getCurrentTurn(), moves);
+        if (count == 0) {
+          continue;
+        }
+        found.add(board);
+        for (int i = 0; i < count && ply + 1 < plies; i++) {
+          UndoRecord record = board.makeMove(moves.cell(i));
+          if (seen.add(symmetry.canonicalHash(board))) {
+            next.add(AbstractBitBoard.copyOf(board));
+          }
+          board.unmakeMove(record);
+        }
+      }
+      level = next;
+    }
+    return found;
+  }
+
+  /**
+   * Searches every opening position and writes the book to a stream.
+   * Returns the number of positions written.
+   */
+  public int build(OutputStream out) throws IOException {
+    List<AbstractBitBoard> boards = positions();
+    long[] keys = new long[boards.size()];
+    int[] cells = new int[boards.size()];
+    int[] scores = new int[boards.size()];
+    AtomicInteger next = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Callable<Void>> tasks = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        tasks.add(() -> {
+          AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(TABLE_MEGABYTES),
+                  evaluators.get(), true);
+          for (int i = next.getAndIncrement(); i < boards.size(); i = next.getAndIncrement()) {
+            searchPosition(search, boards.get(i), i, keys, cells, scores);
+          }
+          return null;
+        });
+      }
+      for (Future<Void> result : pool.invokeAll(tasks)) {
+        result.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("The book build was interrupted.", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A book search failed.", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+    OpeningBook.write(out, size, keys, cells, scores);
+    return boards.size();
+  }
+
+  /**
+   * Deepens a search on one position and stores its canonical key, its
+   * best move as played on the canonical image, and its score.
+   */
+  private void searchPosition(AlphaBetaSearch search, AbstractBitBoard board, int slot,
+                              long[] keys, int[] cells, int[] scores) {
+    search.clearBestCell();
+    search.ageHistory();
+    search.start(AlphaBetaSearch.NO_DEADLINE);
+    int score = 0;
+    for (int d = 1; d <= depth; d++) {
+      score = search.searchAspirated(board, d, score);
+    }
+    long[] hashes = new long[HexSymmetry.COUNT];
+    symmetry.hashes(board, hashes);
+    int canonical = HexSymmetry.leastOf(hashes);
+    keys[slot] = hashes[canonical] ^ symmetry.passKeys(board);
+    cells[slot] = symmetry.map(canonical, search.getBestCell());
+    scores[slot] = board.getCurrentTurn() == PlayerType.BLACK ? score : -score;
+  }
+}
@@ -0,0 +1,114 @@
+package model.search;
+
+import controller.PlayerType;
+import model.HexGeometry;
+import model.ReadOnlyBoardModel;
+import model.UndoRecord;
+
+import java.util.Arrays;
+
+/**
+ * An evaluator that scores a position by looking up the contents of every
+ * pattern of a PatternSet in a table of PatternWeights for the game phase.
+ * The base-3 index of each pattern is kept up to date from the hexes a
+ * move places and flips, so scoring a position is one table lookup per
+ * pattern and no scan of the board.
+ */
+public final class PatternEvaluator implements Evaluator {
+  private static final int BLACK_DIGIT = 1;
+  private static final int WHITE_DIGIT = 2;
+
+  private final PatternWeights weights;
+  private final PatternSet patterns;
+  private final HexGeometry geometry;
+  private final int[] index;
+  private final int[] kindOffset;
+  private int playableEmpties = 0;
+
+  /**
+   * Creates an evaluator scoring positions with a set of weights.
+   * Throws an exception if the weights are null.
+   */
+  public PatternEvaluator(PatternWeights weights) {
+    if (weights == null) {
+      throw new IllegalArgumentException("The pattern weights cannot be null.");
+    }
+    this.weights = weights;
+    this.patterns = weights.getPatterns();
+    this.geometry = patterns.getGeometry();
+    this.index = new int[patterns.getInstanceCount()];
+    this.kindOffset = new int[PatternSet.KINDS];
+  }
+
+  /**
+   * Throws an exception if the board is not the size the weights were made for.
+   */
+  @Override
+  public void reset(ReadOnlyBoardModel board) {
+    if (board.getGeometry() != geometry) {
+      throw new IllegalArgumentException("The pattern weights are for another board size.");
+    }
+    Arrays.fill(index, 0);
+    playableEmpties = 0;
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      int cell = geometry.cellAt(i);
+      PlayerType type = board.getPlayerTypeAt(cell);
+      if (type == PlayerType.EMPTY) {
+        playableEmpties += geometry.isPlayable(cell) ? 1 : 0;
+      } else {
+        addDigit(cell, type == PlayerType.BLACK ? BLACK_DIGIT : WHITE_DIGIT);
+      }
+    }
+  }
+
+  @Override
+  public void moveMade(UndoRecord record) {
+    if (record.isPass()) {
+      return;
+    }
+    boolean black = record.getMover() == PlayerType.BLACK;
+    addDigit(record.getCell(), black ? BLACK_DIGIT : WHITE_DIGIT);
+    int flip = black ? BLACK_DIGIT - WHITE_DIGIT : WHITE_DIGIT - BLACK_DIGIT;
+    for (int i = record.nextFlipped(0); i >= 0; i = record.nextFlipped(i + 1)) {
+      addDigit(i, flip);
+    }
+    playableEmpties--;
+  }
+
+  @Override
+  public void moveUnmade(UndoRecord record) {
+    if (record.isPass()) {
+      return;
+    }
+    boolean black = record.getMover() == PlayerType.BLACK;
+    int flip = black ? WHITE_DIGIT - BLACK_DIGIT : BLACK_DIGIT - WHITE_DIGIT;
+    for (int i = record.nextFlipped(0); i >= 0; i = record.nextFlipped(i + 1)) {
+      addDigit(i, flip);
+    }
+    addDigit(record.getCell(), black ? -BLACK_DIGIT : -WHITE_DIGIT);
+    playableEmpties++;
+  }
+
+  @Override
+  public int evaluate(ReadOnlyBoardModel board) {
+    int phase = weights.phaseOf(playableEmpties);
+    for (int kind = 0; kind < PatternSet.KINDS; kind++) {
+      kindOffset[kind] = weights.offsetOf(phase, kind);
+    }
+    int score = 0;
+    for (int instance = 0; instance < index.length; instance++) {
+      score += weights.get(kindOffset[patterns.kindOf(instance)] + index[instance]);
+    }
+    return board.getCurrentTurn() == PlayerType.BLACK ? score : -score;
+  }
+
+  /**
+   * Adds an amount to the digit of a hex in every pattern it belongs to.
+   */
+  private void addDigit(int cell, int change) {
+    int end = patterns.refStart(cell + 1);
+    for (int ref = patterns.refStart(cell); ref < end; ref++) {
+      index[patterns.refInstance(ref)] += change * patterns.refPower(ref);
+    }
+  }
+}
@@ -0,0 +1,259 @@
+package model.search;
+
+import model.HexGeometry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The fixed groups of hexes a PatternEvaluator scores together on a board
+ * of a given size. There are three kinds of pattern, each with one table
+ * of weights shared by all its instances: the six edges, from corner to
+ * corner; the six corner wedges, every hex within two steps of a corner;
+ * and the three long diagonals joining opposite corners. Instances of a
+ * kind list their hexes in the same order after rotating the board, so
+ * they can share a table.
+ *
+ * <p>A table holds 3^length weights, so no pattern is longer than
+ * MAX_LENGTH hexes. An edge or diagonal longer than that is replaced by
+ * two segments of the same length reaching in from the corners at its
+ * ends, each at most MAX_LENGTH hexes, so the tables stay small on every
+ * board size. On a line of odd length up to twice MAX_LENGTH the two
+ * segments share the middle hex, which is then scored by both.
+ *
+ * <p>The contents of an instance are a base-3 index, each hex being a
+ * digit: 0 for empty, 1 for black and 2 for white, the first hex being
+ * the lowest digit. A set is immutable and shared by every board of its size.
+ */
+public final class PatternSet {
+  /**
+   * The kind of the six edge patterns.
+   */
+  public static final int EDGE = 0;
+
+  /**
+   * The kind of the six corner wedge patterns.
+   */
+  public static final int CORNER_WEDGE = 1;
+
+  /**
+   * The kind of the three diagonal patterns.
+   */
+  public static final int DIAGONAL = 2;
+
+  /**
+   * The number of kinds of pattern.
+   */
+  public static final int KINDS = 3;
+
+  /**
+   * The most hexes in one pattern, keeping every table at 3^10 weights or fewer.
+   */
+  public static final int MAX_LENGTH = 10;
+
+  private static final int DIRECTIONS = 6;
+  private static final Map<Integer, PatternSet> CACHE = new ConcurrentHashMap<>();
+
+  private final HexGeometry geometry;
+  private final int[][] instanceCells;
+  private final int[] instanceKind;
+  private final int[] kindLength;
+  private final int[] refStart;
+  private final int[] refInstance;
+  private final int[] refPower;
+
+  /**
+   * Builds the patterns of a board layout.
+   */
+  private PatternSet(HexGeometry geometry) {
+    this.geometry = geometry;
+    int[] corners = geometry.getCorners();
+    List<int[]> lines = new ArrayList<>();
+    List<Integer> kinds = new ArrayList<>();
+    for (int i = 0; i < DIRECTIONS; i++) {
+      addLine(lines, kinds, EDGE, corners[i], (i + 1) % DIRECTIONS);
+    }
+    for (int i = 0; i < DIRECTIONS; i++) {
+      lines.add(wedge(corners[i], i));
+      kinds.add(CORNER_WEDGE);
+    }
+    for (int i = 0; i < DIRECTIONS / 2; i++) {
+      addLine(lines, kinds, DIAGONAL, corners[i], (i + 2) % DIRECTIONS);
+    }
+    this.instanceCells = lines.toArray(new int[0][]);
+    this.instanceKind = new int[instanceCells.length];
+    for (int i = 0; i < instanceKind.length; i++) {
+      instanceKind[i] = kinds.get(i);
+    }
+    this.kindLength = new int[KINDS];
+    for (int i = 0; i < instanceCells.length; i++) {
+      kindLength[instanceKind[i]] = instanceCells[i].length;
+    }
+
+    int indices = geometry.getIndexCount();
+    this.refStart = new int[indices + 1];
+    for (int[] cells : instanceCells) {
+      for (int cell : cells) {
+        refStart[cell + 1]++;
+      }
+    }
+    for (int i = 0; i < indices; i++) {
+      refStart[i + 1] += refStart[i];
+    }
+    this.refInstance = new int[refStart[indices]];
+    this.refPower = new int[refStart[indices]];
+    int[] filled = new int[indices];
+    for (int instance = 0; instance < instanceCells.length; instance++) {
+      int power = 1;
+      for (int cell : instanceCells[instance]) {
+        int slot = refStart[cell] + filled[cell]++;
+        refInstance[slot] = instance;
+        refPower[slot] = power;
+        power *= 3;
+      }
+    }
+  }
+
+  /**
+   * Adds the line running from a corner in a direction to the next corner
+   * as a pattern, or, when it is longer than MAX_LENGTH, the two segments
+   * reaching in from its ends, which overlap by the middle hex when the
+   * line is odd and short enough. The far segment is the mirror image of
+   * the near one, so the two can share a table.
+   */
+  private void addLine(List<int[]> cells, List<Integer> kinds, int kind, int corner, int dir) {
+    int[] ray = geometry.ray(corner, dir);
+    int[] line = new int[ray.length + 1];
+    line[0] = corner;
+    System.arraycopy(ray, 0, line, 1, ray.length);
+    if (line.length <= MAX_LENGTH) {
+      cells.add(line);
+      kinds.add(kind);
+      return;
+    }
+    int length = Math.min(MAX_LENGTH, (line.length + 1) / 2);
+    int[] near = new int[length];
+    int[] far = new int[length];
+    for (int i = 0; i < length; i++) {
+      near[i] = line[i];
+      far[i] = line[line.length - 1 - i];
+    }
+    cells.add(near);
+    kinds.add(kind);
+    cells.add(far);
+    kinds.add(kind);
+  }
+
+  /**
+   * Returns the hexes within two steps of a corner, in an order that is
+   * the same for every corner after rotating the board: the corner, its
+   * three neighbours, then the five hexes beyond them.
+   */
+  private int[] wedge(int corner, int rotation) {
+    int first = (rotation + 1) % DIRECTIONS;
+    int middle = (rotation + 2) % DIRECTIONS;
+    int last = (rotation + 3) % DIRECTIONS;
+    int a = step(corner, first);
+    int b = step(corner, middle);
+    int c = step(corner, last);
+    return new int[] {
+      corner, a, b, c,
+      step(a, first), step(a, middle), step(b, middle), step(c, middle), step(c, last)
+    };
+  }
+
+  /**
+   * Returns the neighbour of a hex in a direction, which must be on the board.
+   */
+  private int step(int cell, int dir) {
+    return geometry.ray(cell, dir)[0];
+  }
+
+  /**
+   * Returns the shared patterns for a board of the given size.
+   * Throws an exception if the size is not odd and at least 5.
+   */
+  public static PatternSet of(int size) {
+    if (size < 5 || size % 2 == 0) {
+      throw new IllegalArgumentException("Patterns need an odd board size of at least 5, not "
+              + size + ".");
+    }
+    PatternSet set = CACHE.get(size);
+    if (set == null) {
+      set = CACHE.computeIfAbsent(size, key -> new PatternSet(HexGeometry.of(key)));
+    }
+    return set;
+  }
+
+  /**
+   * Returns the layout the patterns are drawn on.
+   */
+  public HexGeometry getGeometry() {
+    return geometry;
+  }
+
+  /**
+   * Returns the number of pattern instances on the board.
+   */
+  public int getInstanceCount() {
+    return instanceCells.length;
+  }
+
+  /**
+   * Returns the kind of a pattern instance.
+   */
+  public int kindOf(int instance) {
+    return instanceKind[instance];
+  }
+
+  /**
+   * Returns the hexes of a pattern instance, lowest digit first.
+   * The array is shared and must not be modified.
+   */
+  public int[] cellsOf(int instance) {
+    return instanceCells[instance];
+  }
+
+  /**
+   * Returns the number of hexes in every pattern of a kind.
+   */
+  public int lengthOf(int kind) {
+    return kindLength[kind];
+  }
+
+  /**
+   * Returns the number of different contents a pattern of a kind can have,
+   * 3^length, which is at most 3^MAX_LENGTH.
+   */
+  public long indexCountOf(int kind) {
+    long count = 1;
+    for (int i = 0; i < kindLength[kind]; i++) {
+      count *= 3;
+    }
+    return count;
+  }
+
+  /**
+   * Returns where the pattern references of a hex start. The references
+   * of hex i run from refStart(i) up to refStart(i + 1).
+   */
+  public int refStart(int cell) {
+    return refStart[cell];
+  }
+
+  /**
+   * Returns the pattern instance of a reference.
+   */
+  public int refInstance(int ref) {
+    return refInstance[ref];
+  }
+
+  /**
+   * Returns the power of 3 a hex's digit is worth in the instance of a reference.
+   */
+  public int refPower(int ref) {
+    return refPower[ref];
+  }
+}
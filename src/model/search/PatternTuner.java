@@ -0,0 +1,388 @@
+package model.search;
+
+import controller.PlayerType;
+import model.HexGeometry;
+import model.ReadOnlyBoardModel;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fits PatternWeights to positions labeled with the result their game
+ * ended in, in the style of Texel tuning: the evaluation of a position,
+ * squashed by a sigmoid, is read as black's chance of winning, and the
+ * weights are moved to lower the logistic loss against the real results.
+ *
+ * <p>Positions are streamed from a file in chunks, so the file may be far
+ * larger than memory. The gradient of each chunk is worked out in parallel
+ * slices on a fork-join pool. Each slice lists the weights its records
+ * used with their slopes, in buffers sized by its share of a chunk rather
+ * than by the weight table. The lists are then merged, and only the
+ * weights the chunk used take an Adam step, also in parallel slices, in
+ * the manner of lazy Adam. Weights are written to a checkpoint file after
+ * every pass over the data.
+ *
+ * <p>A position file starts with a header naming the board size, then
+ * holds fixed-length records: every hex in HexGeometry.cellAt order as two
+ * bits, 0 for empty, 1 for black and 2 for white, packed four to a byte,
+ * then one byte for the result, 0 for a black loss, 1 for a draw and 2
+ * for a black win.
+ */
+public final class PatternTuner {
+  /**
+   * The result byte of a game black lost.
+   */
+  public static final int BLACK_LOSS = 0;
+
+  /**
+   * The result byte of a drawn game.
+   */
+  public static final int DRAW = 1;
+
+  /**
+   * The result byte of a game black won.
+   */
+  public static final int BLACK_WIN = 2;
+
+  /**
+   * The evaluation, in weight units, at which black's chance of winning is
+   * taken to be about 73%, one logit.
+   */
+  public static final float SCALE = 100f;
+
+  private static final int MAGIC = 0x48455844;
+  private static final int CHUNK_RECORDS = 1 << 16;
+  private static final float LEARNING_RATE = 1f;
+  private static final float BETA1 = 0.9f;
+  private static final float BETA2 = 0.999f;
+  private static final float EPSILON = 1e-8f;
+
+  private final PatternSet patterns;
+  private final PatternWeights layout;
+  private final ForkJoinPool pool;
+  private final int slices;
+  private final float[] weights;
+  private final float[] momentum;
+  private final float[] velocity;
+  private final float[] gradient;
+  private final boolean[] touched;
+  private final int[] touchedList;
+  private int touchedCount = 0;
+  private final int[][] slicePositions;
+  private final float[][] sliceSlopes;
+  private final int[] sliceCount;
+  private final double[] sliceLoss;
+  private final int recordLength;
+  private long steps = 0;
+
+  /**
+   * Creates a tuner starting from a set of weights, splitting its work
+   * over a certain number of threads.
+   * Throws an exception if the weights are null or the thread count is
+   * less than 1.
+   */
+  public PatternTuner(PatternWeights start, int threads) {
+    if (start == null) {
+      throw new IllegalArgumentException("The starting weights cannot be null.");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("The tuner needs at least 1 thread.");
+    }
+    this.layout = start;
+    this.patterns = start.getPatterns();
+    this.pool = new ForkJoinPool(threads);
+    this.slices = threads;
+    this.weights = new float[start.getWeightCount()];
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = start.get(i);
+    }
+    this.momentum = new float[weights.length];
+    this.velocity = new float[weights.length];
+    this.gradient = new float[weights.length];
+    this.touched = new boolean[weights.length];
+    int instances = patterns.getInstanceCount();
+    this.touchedList = new int[(int) Math.min(weights.length, (long) CHUNK_RECORDS * instances)];
+    int sliceUses = ((CHUNK_RECORDS + threads - 1) / threads + 1) * instances;
+    this.slicePositions = new int[threads][sliceUses];
+    this.sliceSlopes = new float[threads][sliceUses];
+    this.sliceCount = new int[threads];
+    this.sliceLoss = new double[threads];
+    this.recordLength = recordLength(patterns.getGeometry());
+  }
+
+  /**
+   * Writes the header of a position file for a board size.
+   */
+  public static void writeHeader(OutputStream stream, int size) throws IOException {
+    DataOutputStream out = new DataOutputStream(stream);
+    out.writeInt(MAGIC);
+    out.writeInt(size);
+    out.flush();
+  }
+
+  /**
+   * Writes one position and the result its game ended in, BLACK_LOSS, DRAW
+   * or BLACK_WIN, to a position file.
+   */
+  public static void writePosition(OutputStream out, ReadOnlyBoardModel board, int result)
+          throws IOException {
+    HexGeometry geometry = board.getGeometry();
+    byte[] record = new byte[recordLength(geometry)];
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      PlayerType type = board.getPlayerTypeAt(geometry.cellAt(i));
+      int digit = type == PlayerType.BLACK ? 1 : type == PlayerType.WHITE ? 2 : 0;
+      record[i >> 2] |= (byte) (digit << ((i & 3) * 2));
+    }
+    record[record.length - 1] = (byte) result;
+    out.write(record);
+  }
+
+  /**
+   * Returns the length in bytes of one record for a board layout.
+   */
+  private static int recordLength(HexGeometry geometry) {
+    return (geometry.getCellCount() + 3) / 4 + 1;
+  }
+
+  /**
+   * Makes a number of passes over a position file, updating the weights
+   * after every chunk, and writes the weights to a checkpoint file after
+   * every pass, or not at all if the path is null. Returns the mean loss
+   * of the last pass.
+   * Throws an exception if the file is for another board size.
+   */
+  public double tune(Path positions, int passes, Path checkpoint) throws IOException {
+    double loss = 0;
+    for (int pass = 0; pass < passes; pass++) {
+      loss = runPass(positions, true);
+      if (checkpoint != null) {
+        writeCheckpoint(checkpoint);
+      }
+    }
+    return loss;
+  }
+
+  /**
+   * Returns the mean loss of the current weights over a position file,
+   * without changing them.
+   * Throws an exception if the file is for another board size.
+   */
+  public double measure(Path positions) throws IOException {
+    return runPass(positions, false);
+  }
+
+  /**
+   * Streams a position file chunk by chunk, summing the loss and, when
+   * learning, updating the weights after each chunk. Returns the mean loss.
+   */
+  private double runPass(Path positions, boolean learn) throws IOException {
+    byte[] chunk = new byte[CHUNK_RECORDS * recordLength];
+    double totalLoss = 0;
+    long total = 0;
+    try (InputStream file = Files.newInputStream(positions)) {
+      DataInputStream in = new DataInputStream(new BufferedInputStream(file));
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Not a position file.");
+      }
+      if (in.readInt() != patterns.getGeometry().getSize()) {
+        throw new IOException("The positions are for another board size.");
+      }
+      while (true) {
+        int read = in.readNBytes(chunk, 0, chunk.length);
+        int records = read / recordLength;
+        if (records == 0) {
+          break;
+        }
+        totalLoss += gradient(chunk, records);
+        total += records;
+        if (learn) {
+          update(records);
+        }
+      }
+    }
+    return total == 0 ? 0 : totalLoss / total;
+  }
+
+  /**
+   * Works out the loss and gradient of a chunk of records, split into one
+   * slice per thread. Returns the summed loss.
+   */
+  private double gradient(byte[] chunk, int records) {
+    List<RecursiveAction> tasks = new ArrayList<>();
+    for (int slice = 0; slice < slices; slice++) {
+      int sliceIndex = slice;
+      int from = (int) ((long) records * slice / slices);
+      int to = (int) ((long) records * (slice + 1) / slices);
+      tasks.add(new RecursiveAction() {
+        @Override
+        protected void compute() {
+          sliceLoss[sliceIndex] = gradientOf(chunk, from, to, sliceIndex);
+        }
+      });
+    }
+    pool.invoke(new RecursiveAction() {
+      @Override
+      protected void compute() {
+        invokeAll(tasks);
+      }
+    });
+    double loss = 0;
+    for (double sliceTotal : sliceLoss) {
+      loss += sliceTotal;
+    }
+    return loss;
+  }
+
+  /**
+   * Lists the weights used by a range of records with their slopes in the
+   * buffers of a slice, and returns the records' summed loss.
+   */
+  private double gradientOf(byte[] chunk, int from, int to, int slice) {
+    int[] uses = slicePositions[slice];
+    float[] slopes = sliceSlopes[slice];
+    int count = 0;
+    HexGeometry geometry = patterns.getGeometry();
+    int cells = geometry.getCellCount();
+    int[] digits = new int[geometry.getIndexCount()];
+    int[] positions = new int[patterns.getInstanceCount()];
+    double loss = 0;
+    for (int record = from; record < to; record++) {
+      int base = record * recordLength;
+      int empties = 0;
+      for (int i = 0; i < cells; i++) {
+        int cell = geometry.cellAt(i);
+        int digit = (chunk[base + (i >> 2)] >> ((i & 3) * 2)) & 3;
+        digits[cell] = digit;
+        if (digit == 0 && geometry.isPlayable(cell)) {
+          empties++;
+        }
+      }
+      int phase = layout.phaseOf(empties);
+      float score = 0;
+      for (int instance = 0; instance < positions.length; instance++) {
+        int index = 0;
+        int power = 1;
+        for (int cell : patterns.cellsOf(instance)) {
+          index += digits[cell] * power;
+          power *= 3;
+        }
+        positions[instance] = layout.offsetOf(phase, patterns.kindOf(instance)) + index;
+        score += weights[positions[instance]];
+      }
+      float target = chunk[base + recordLength - 1] / 2f;
+      float chance = (float) (1 / (1 + Math.exp(-score / SCALE)));
+      loss -= target * Math.log(Math.max(chance, 1e-7))
+              + (1 - target) * Math.log(Math.max(1 - chance, 1e-7));
+      float slope = (chance - target) / SCALE;
+      for (int position : positions) {
+        uses[count] = position;
+        slopes[count++] = slope;
+      }
+    }
+    sliceCount[slice] = count;
+    return loss;
+  }
+
+  /**
+   * Sums the slopes listed by every slice into the gradient, noting each
+   * weight used for the first time in the chunk.
+   */
+  private void mergeSlices() {
+    for (int slice = 0; slice < slices; slice++) {
+      int[] uses = slicePositions[slice];
+      float[] slopes = sliceSlopes[slice];
+      for (int i = 0; i < sliceCount[slice]; i++) {
+        int position = uses[i];
+        if (!touched[position]) {
+          touched[position] = true;
+          touchedList[touchedCount++] = position;
+        }
+        gradient[position] += slopes[i];
+      }
+    }
+  }
+
+  /**
+   * Takes one Adam step with the mean gradient of a chunk on the weights
+   * the chunk used, clearing their gradient, split into one range of those
+   * weights per thread. Weights the chunk did not use are left alone.
+   */
+  private void update(int records) {
+    mergeSlices();
+    steps++;
+    float correction1 = (float) (1 - Math.pow(BETA1, steps));
+    float correction2 = (float) (1 - Math.pow(BETA2, steps));
+    List<RecursiveAction> tasks = new ArrayList<>();
+    for (int slice = 0; slice < slices; slice++) {
+      int from = (int) ((long) touchedCount * slice / slices);
+      int to = (int) ((long) touchedCount * (slice + 1) / slices);
+      tasks.add(new RecursiveAction() {
+        @Override
+        protected void compute() {
+          for (int k = from; k < to; k++) {
+            int i = touchedList[k];
+            float g = gradient[i] / records;
+            gradient[i] = 0;
+            touched[i] = false;
+            momentum[i] = BETA1 * momentum[i] + (1 - BETA1) * g;
+            velocity[i] = BETA2 * velocity[i] + (1 - BETA2) * g * g;
+            float step = (momentum[i] / correction1)
+                    / ((float) Math.sqrt(velocity[i] / correction2) + EPSILON);
+            weights[i] -= LEARNING_RATE * step;
+          }
+        }
+      });
+    }
+    pool.invoke(new RecursiveAction() {
+      @Override
+      protected void compute() {
+        invokeAll(tasks);
+      }
+    });
+    touchedCount = 0;
+  }
+
+  /**
+   * Writes the current weights to a file, through a temporary file so
+   * that a crash never leaves a half-written checkpoint.
+   */
+  public void writeCheckpoint(Path path) throws IOException {
+    Path absolute = path.toAbsolutePath();
+    Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+    try (OutputStream out = Files.newOutputStream(temporary)) {
+      getWeights().write(out);
+    }
+    Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Returns the current weights, rounded to shorts.
+   */
+  public PatternWeights getWeights() {
+    short[] rounded = new short[weights.length];
+    for (int i = 0; i < weights.length; i++) {
+      rounded[i] = (short) Math.max(Short.MIN_VALUE,
+              Math.min(Short.MAX_VALUE, Math.round(weights[i])));
+    }
+    return PatternWeights.of(patterns, rounded);
+  }
+
+  /**
+   * Stops the tuner's threads.
+   */
+  public void shutdown() {
+    pool.shutdown();
+  }
+}
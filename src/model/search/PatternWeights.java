@@ -0,0 +1,228 @@
+package model.search;
+
+import model.HexGeometry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The weights of a PatternEvaluator for one board size: for every game
+ * phase and pattern kind, one score for each possible content of a
+ * pattern, from black's point of view. All tables live in one flat short
+ * array, so scoring a pattern is a single lookup.
+ *
+ * <p>Weights are stored in a small binary file: a header naming the board
+ * size, the number of phases and the length of each kind's table, then
+ * every weight as a big-endian short. Weights are immutable once made, so
+ * one set may be shared by every evaluator and thread.
+ */
+public final class PatternWeights {
+  /**
+   * The number of game phases with their own weights, split by how many
+   * playable hexes have been filled.
+   */
+  public static final int PHASES = 4;
+
+  private static final int MAGIC = 0x48455850;
+  private static final int VERSION = 1;
+  private static final int SEED_CORNER = 24;
+  private static final int SEED_EDGE = 4;
+  private static final int SEED_OTHER = 1;
+
+  private final PatternSet patterns;
+  private final short[] weights;
+  private final int[] offsets;
+
+  /**
+   * Wraps a flat weight array laid out for a pattern set.
+   */
+  private PatternWeights(PatternSet patterns, short[] weights) {
+    this.patterns = patterns;
+    this.offsets = offsetsFor(patterns);
+    if (weights.length != offsets[offsets.length - 1]) {
+      throw new IllegalArgumentException("The weights do not match the patterns.");
+    }
+    this.weights = weights;
+  }
+
+  /**
+   * Returns weights for a pattern set taken from a flat array laid out as
+   * getWeightCount describes, copying the array.
+   * Throws an exception if the array has the wrong length.
+   */
+  public static PatternWeights of(PatternSet patterns, short[] weights) {
+    return new PatternWeights(patterns, weights.clone());
+  }
+
+  /**
+   * Returns hand-made starting weights for a board size, which value each
+   * disc by where it stands: corners most, then edges.
+   * Throws an exception if the size is not odd and at least 5.
+   */
+  public static PatternWeights seeded(int size) {
+    PatternSet patterns = PatternSet.of(size);
+    HexGeometry geometry = patterns.getGeometry();
+    int[] offsets = offsetsFor(patterns);
+    short[] weights = new short[offsets[offsets.length - 1]];
+    int[] sample = new int[patterns.getInstanceCount()];
+    for (int instance = 0; instance < sample.length; instance++) {
+      sample[patterns.kindOf(instance)] = instance;
+    }
+    for (int kind = 0; kind < PatternSet.KINDS; kind++) {
+      int[] cells = patterns.cellsOf(sample[kind]);
+      int count = (int) patterns.indexCountOf(kind);
+      for (int index = 0; index < count; index++) {
+        int score = 0;
+        int rest = index;
+        for (int cell : cells) {
+          int digit = rest % 3;
+          rest /= 3;
+          int value = geometry.isCorner(cell) ? SEED_CORNER
+                  : geometry.isEdge(cell) ? SEED_EDGE : SEED_OTHER;
+          score += digit == 1 ? value : digit == 2 ? -value : 0;
+        }
+        for (int phase = 0; phase < PHASES; phase++) {
+          weights[offsets[phase * PatternSet.KINDS + kind] + index] = (short) score;
+        }
+      }
+    }
+    return new PatternWeights(patterns, weights);
+  }
+
+  /**
+   * Reads the weights for a board size from a file in the current
+   * directory named pattern-weights-SIZE.bin, or returns the seeded
+   * weights when there is no such file.
+   * Throws an exception if the size is not odd and at least 5, or if the
+   * file exists but cannot be read or is for another layout.
+   */
+  public static PatternWeights forSize(int size) {
+    Path path = Paths.get("pattern-weights-" + size + ".bin");
+    if (!Files.exists(path)) {
+      return seeded(size);
+    }
+    try (InputStream in = Files.newInputStream(path)) {
+      return read(in);
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read " + path + ": " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Reads weights written by write from a stream.
+   * Throws an exception if the stream is not a weight file or is cut short.
+   */
+  public static PatternWeights read(InputStream stream) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+      throw new IOException("Not a pattern weight file.");
+    }
+    PatternSet patterns = PatternSet.of(in.readInt());
+    if (in.readInt() != PHASES) {
+      throw new IOException("The file has a different number of phases.");
+    }
+    for (int kind = 0; kind < PatternSet.KINDS; kind++) {
+      if (in.readInt() != patterns.indexCountOf(kind)) {
+        throw new IOException("The file was made for other patterns.");
+      }
+    }
+    short[] weights = new short[offsetsFor(patterns)[PHASES * PatternSet.KINDS]];
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = in.readShort();
+    }
+    return new PatternWeights(patterns, weights);
+  }
+
+  /**
+   * Writes these weights to a stream, in the form read reads.
+   */
+  public void write(OutputStream stream) throws IOException {
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(patterns.getGeometry().getSize());
+    out.writeInt(PHASES);
+    for (int kind = 0; kind < PatternSet.KINDS; kind++) {
+      out.writeInt((int) patterns.indexCountOf(kind));
+    }
+    for (short weight : weights) {
+      out.writeShort(weight);
+    }
+    out.flush();
+  }
+
+  /**
+   * Returns where the table of a phase and pattern kind starts in the
+   * flat arrays, the last entry being the total length.
+   * Throws an exception if the tables would not fit in one array.
+   */
+  private static int[] offsetsFor(PatternSet patterns) {
+    int[] offsets = new int[PHASES * PatternSet.KINDS + 1];
+    long total = 0;
+    for (int phase = 0; phase < PHASES; phase++) {
+      for (int kind = 0; kind < PatternSet.KINDS; kind++) {
+        total += patterns.indexCountOf(kind);
+        if (total > Integer.MAX_VALUE - 8) {
+          throw new IllegalArgumentException("The pattern tables are too large for a board of size "
+                  + patterns.getGeometry().getSize() + ".");
+        }
+        offsets[phase * PatternSet.KINDS + kind + 1] = (int) total;
+      }
+    }
+    return offsets;
+  }
+
+  /**
+   * Returns the phase of a position with a certain number of playable
+   * hexes still empty.
+   */
+  public int phaseOf(int playableEmpties) {
+    int playable = patterns.getGeometry().getPlayableCount();
+    int filled = Math.max(0, playable - playableEmpties);
+    return Math.min(PHASES - 1, filled * PHASES / playable);
+  }
+
+  /**
+   * Returns where the table of a phase and pattern kind starts in the
+   * flat weight array.
+   */
+  public int offsetOf(int phase, int kind) {
+    return offsets[phase * PatternSet.KINDS + kind];
+  }
+
+  /**
+   * Returns the weight at a position of the flat array.
+   */
+  public short get(int position) {
+    return weights[position];
+  }
+
+  /**
+   * Returns the length of the flat weight array.
+   */
+  public int getWeightCount() {
+    return weights.length;
+  }
+
+  /**
+   * Returns a copy of the flat weight array.
+   */
+  public short[] toArray() {
+    return weights.clone();
+  }
+
+  /**
+   * Returns the patterns these weights score.
+   */
+  public PatternSet getPatterns() {
+    return patterns;
+  }
+}
@@ -0,0 +1,187 @@
+package model.search;
+
+import controller.PlayerType;
+import model.AbstractBitBoard;
+import model.MoveList;
+import model.UndoRecord;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One thread's share of a Monte-Carlo search: it walks down the shared tree
+ * by UCT, expands a leaf, plays a random game to the end on its own board
+ * and adds the result to every node on the way down. All of its state is
+ * allocated up front, so a playout creates no objects.
+ */
+final class PlayoutWorker {
+  private static final float EXPLORATION = 1.0f;
+  private static final int EXPAND_AFTER_VISITS = 2;
+
+  private final MoveList moves = new MoveList();
+  private final SplittableRandom random;
+  private AbstractBitBoard board;
+  private int[] cells = new int[0];
+  private int[] path = new int[0];
+  private boolean[] blackMoved = new boolean[0];
+  private UndoRecord[] records = new UndoRecord[0];
+  private long playouts = 0;
+
+  /**
+   * Creates a worker whose random games are drawn from a certain seed.
+   */
+  PlayoutWorker(long seed) {
+    this.random = new SplittableRandom(seed);
+  }
+
+  /**
+   * Gives the worker its own copy of the root position to play on.
+   */
+  void reset(AbstractBitBoard root) {
+    board = AbstractBitBoard.copyOf(root);
+    int longest = 2 * board.getGeometry().getCellCount() + 2;
+    if (path.length < longest) {
+      cells = new int[longest];
+      path = new int[longest];
+      blackMoved = new boolean[longest];
+      records = new UndoRecord[longest];
+    }
+  }
+
+  /**
+   * Runs playouts on a tree until the deadline passes, the shared playout
+   * budget runs out or the thread is interrupted.
+   */
+  void run(NodeArena tree, long deadline, AtomicInteger playoutsLeft) {
+    while (playoutsLeft.getAndDecrement() > 0 && System.nanoTime() < deadline
+            && !Thread.currentThread().isInterrupted()) {
+      playOnce(tree);
+      playouts++;
+    }
+  }
+
+  /**
+   * Returns the number of playouts this worker has run.
+   */
+  long getPlayouts() {
+    return playouts;
+  }
+
+  /**
+   * Runs one selection, expansion, playout and update from the root.
+   */
+  private void playOnce(NodeArena tree) {
+    int node = 0;
+    int depth = 0;
+    int made = 0;
+    tree.addVisit(0);
+    while (true) {
+      int first = tree.firstChild(node);
+      if (first > 0) {
+        int child = select(tree, node, first);
+        tree.addVisit(child);
+        blackMoved[depth + 1] = board.getCurrentTurn() == PlayerType.BLACK;
+        records[made++] = board.makeMove(tree.move(child));
+        path[++depth] = child;
+        node = child;
+      } else if (first == NodeArena.UNEXPANDED
+              && tree.visits(node) >= EXPAND_AFTER_VISITS && tree.claim(node)) {
+        if (!expand(tree, node)) {
+          break;
+        }
+      } else {
+        break;
+      }
+    }
+
+    float blackReward = playout(made);
+    for (int i = 1; i <= depth; i++) {
+      tree.addValue(path[i], blackMoved[i] ? blackReward : 1f - blackReward);
+    }
+    while (made > 0) {
+      board.unmakeMove(records[--made]);
+    }
+  }
+
+  /**
+   * Returns the child of a node with the best UCT score. A child nobody
+   * has visited yet is chosen first.
+   */
+  private int select(NodeArena tree, int node, int first) {
+    int end = first + tree.childCount(node);
+    float logVisits = (float) Math.log(Math.max(1, tree.visits(node)));
+    int best = first;
+    float bestScore = Float.NEGATIVE_INFINITY;
+    for (int child = first; child < end; child++) {
+      int visits = tree.visits(child);
+      if (visits == 0) {
+        return child;
+      }
+      float score = tree.value(child) / visits
+              + EXPLORATION * (float) Math.sqrt(logVisits / visits);
+      if (score > bestScore) {
+        bestScore = score;
+        best = child;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Gives a claimed node one child per legal move, a single pass child
+   * when only the opponent can move, or marks the game over. Returns
+   * false when the node was left as a leaf.
+   */
+  private boolean expand(NodeArena tree, int node) {
+    PlayerType side = board.getCurrentTurn();
+    int count = board.generateMoves(side, moves);
+    for (int i = 0; i < count; i++) {
+      cells[i] = moves.cell(i);
+    }
+    if (count == 0 && !board.isBoardFull()
+            && board.generateMoves(side.nextPlayer(), moves) > 0) {
+      cells[0] = UndoRecord.PASS;
+      count = 1;
+    }
+    if (count == 0) {
+      tree.markTerminal(node);
+      return false;
+    }
+    if (!tree.expand(node, cells, count)) {
+      tree.release(node);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Plays random moves to the end of the game, takes them back, and
+   * returns black's reward: 1 for a win, 0.5 for a draw and 0 for a loss.
+   */
+  private float playout(int made) {
+    int start = made;
+    while (!board.isBoardFull()) {
+      PlayerType side = board.getCurrentTurn();
+      int count = board.generateMoves(side, moves);
+      int cell;
+      if (count > 0) {
+        cell = moves.cell(random.nextInt(count));
+      } else if (board.generateMoves(side.nextPlayer(), moves) > 0) {
+        cell = UndoRecord.PASS;
+      } else {
+        break;
+      }
+      records[made++] = board.makeMove(cell);
+    }
+    int difference = board.countPieces(PlayerType.BLACK) - board.countPieces(PlayerType.WHITE);
+    while (made > start) {
+      board.unmakeMove(records[--made]);
+    }
+    if (difference > 0) {
+      return 1f;
+    } else if (difference < 0) {
+      return 0f;
+    }
+    return 0.5f;
+  }
+}
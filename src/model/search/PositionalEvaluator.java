@@ -0,0 +1,224 @@
+package model.search;
+
+import controller.PlayerType;
+import model.HexGeometry;
+import model.ReadOnlyBoardModel;
+import model.UndoRecord;
+
+import java.util.Arrays;
+
+/**
+ * An evaluator that scores a position from mobility, potential mobility,
+ * frontier discs, stable discs, corners and edges held, and parity. Every
+ * term but mobility is kept as a running count per player, updated from
+ * the hexes a move places and flips, so scoring a position only adds up a
+ * few numbers and counts the legal moves of each player.
+ *
+ * <p>Potential mobility is the number of empty hexes next to the opponent's
+ * discs, where moves may open up later. Frontier discs are discs next to an
+ * empty hex, which tend to give the opponent moves. Parity favours the
+ * player who will make the last move. Hexes that can never be played are
+ * not counted as empty.
+ */
+public final class PositionalEvaluator implements Evaluator {
+  private static final int NONE = 0;
+  private static final int BLACK = 1;
+  private static final int WHITE = 2;
+  private static final int DIRECTIONS = 6;
+
+  private static final int CORNER_WEIGHT = 25;
+  private static final int EDGE_WEIGHT = 3;
+  private static final int MOBILITY_WEIGHT = 5;
+  private static final int POTENTIAL_MOBILITY_WEIGHT = 2;
+  private static final int FRONTIER_WEIGHT = 2;
+  private static final int PARITY_WEIGHT = 4;
+  private static final int STABILITY_WEIGHT = 10;
+
+  private HexGeometry geometry;
+  private int[] owner = new int[0];
+  private int[] neighbors = new int[0];
+  private int[] cornerCount = new int[0];
+  private int[] edgeCount = new int[0];
+  private boolean[] playable = new boolean[0];
+  private int[] emptyNeighbors = new int[0];
+  private int[] nextTo = new int[0];
+  private int indices = 0;
+  private final int[] corners = new int[3];
+  private final int[] edges = new int[3];
+  private final int[] frontier = new int[3];
+  private final int[] potential = new int[3];
+  private int empties = 0;
+  private final StableDiscs stableDiscs = new StableDiscs();
+
+  @Override
+  public void reset(ReadOnlyBoardModel board) {
+    prepare(board.getGeometry());
+    Arrays.fill(owner, NONE);
+    Arrays.fill(emptyNeighbors, 0);
+    Arrays.fill(nextTo, 0);
+    Arrays.fill(corners, 0);
+    Arrays.fill(edges, 0);
+    Arrays.fill(frontier, 0);
+    Arrays.fill(potential, 0);
+    empties = 0;
+    stableDiscs.reset(board);
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      int cell = geometry.cellAt(i);
+      if (playable[cell]) {
+        empties++;
+        for (int dir = 0; dir < DIRECTIONS; dir++) {
+          int neighbor = neighbors[cell * DIRECTIONS + dir];
+          if (neighbor >= 0) {
+            emptyNeighbors[neighbor]++;
+          }
+        }
+      }
+    }
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      int cell = geometry.cellAt(i);
+      int type = ownerOf(board.getPlayerTypeAt(cell));
+      if (type != NONE) {
+        change(cell, NONE, type);
+      }
+    }
+  }
+
+  @Override
+  public void moveMade(UndoRecord record) {
+    stableDiscs.moveMade(record);
+    if (record.isPass()) {
+      return;
+    }
+    int mover = ownerOf(record.getMover());
+    int opponent = BLACK + WHITE - mover;
+    change(record.getCell(), NONE, mover);
+    for (int i = record.nextFlipped(0); i >= 0; i = record.nextFlipped(i + 1)) {
+      change(i, opponent, mover);
+    }
+  }
+
+  @Override
+  public void moveUnmade(UndoRecord record) {
+    stableDiscs.moveUnmade(record);
+    if (record.isPass()) {
+      return;
+    }
+    int mover = ownerOf(record.getMover());
+    int opponent = BLACK + WHITE - mover;
+    for (int i = record.nextFlipped(0); i >= 0; i = record.nextFlipped(i + 1)) {
+      change(i, mover, opponent);
+    }
+    change(record.getCell(), mover, NONE);
+  }
+
+  @Override
+  public int evaluate(ReadOnlyBoardModel board) {
+    PlayerType side = board.getCurrentTurn();
+    int own = ownerOf(side);
+    int other = BLACK + WHITE - own;
+    int mobility = board.countMoves(side) - board.countMoves(side.nextPlayer());
+    return CORNER_WEIGHT * (corners[own] - corners[other])
+            + EDGE_WEIGHT * (edges[own] - edges[other])
+            + MOBILITY_WEIGHT * mobility
+            + POTENTIAL_MOBILITY_WEIGHT * (potential[other] - potential[own])
+            - FRONTIER_WEIGHT * (frontier[own] - frontier[other])
+            + PARITY_WEIGHT * ((empties & 1) == 1 ? 1 : -1)
+            + STABILITY_WEIGHT * (stableDiscs.count(side) - stableDiscs.count(side.nextPlayer()));
+  }
+
+  /**
+   * Changes what holds a hex, from nothing, black or white to another, and
+   * updates every running count the hex and its neighbours take part in.
+   */
+  private void change(int cell, int from, int to) {
+    if (from != NONE) {
+      corners[from] -= cornerCount[cell];
+      edges[from] -= edgeCount[cell];
+      frontier[from] -= emptyNeighbors[cell] > 0 ? 1 : 0;
+    } else if (to != NONE) {
+      empties--;
+      potential[BLACK] -= nextTo[BLACK * indices + cell] > 0 ? 1 : 0;
+      potential[WHITE] -= nextTo[WHITE * indices + cell] > 0 ? 1 : 0;
+    }
+    owner[cell] = to;
+    if (to != NONE) {
+      corners[to] += cornerCount[cell];
+      edges[to] += edgeCount[cell];
+      frontier[to] += emptyNeighbors[cell] > 0 ? 1 : 0;
+    } else {
+      empties++;
+      potential[BLACK] += nextTo[BLACK * indices + cell] > 0 ? 1 : 0;
+      potential[WHITE] += nextTo[WHITE * indices + cell] > 0 ? 1 : 0;
+    }
+
+    int emptyChange = (to == NONE ? 1 : 0) - (from == NONE ? 1 : 0);
+    int first = cell * DIRECTIONS;
+    for (int dir = 0; dir < DIRECTIONS; dir++) {
+      int neighbor = neighbors[first + dir];
+      if (neighbor < 0) {
+        continue;
+      }
+      boolean emptyNeighbor = owner[neighbor] == NONE && playable[neighbor];
+      if (from != to) {
+        if (from != NONE && --nextTo[from * indices + neighbor] == 0 && emptyNeighbor) {
+          potential[from]--;
+        }
+        if (to != NONE && ++nextTo[to * indices + neighbor] == 1 && emptyNeighbor) {
+          potential[to]++;
+        }
+      }
+      if (emptyChange != 0) {
+        boolean wasFrontier = emptyNeighbors[neighbor] > 0;
+        emptyNeighbors[neighbor] += emptyChange;
+        int type = owner[neighbor];
+        if (type != NONE && wasFrontier != emptyNeighbors[neighbor] > 0) {
+          frontier[type] += emptyChange;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the owner code of a player type.
+   */
+  private static int ownerOf(PlayerType type) {
+    if (type == PlayerType.BLACK) {
+      return BLACK;
+    } else if (type == PlayerType.WHITE) {
+      return WHITE;
+    }
+    return NONE;
+  }
+
+  /**
+   * Sizes the tables and finds the neighbours and kind of every hex for a
+   * board layout.
+   */
+  private void prepare(HexGeometry layout) {
+    if (layout == geometry) {
+      return;
+    }
+    geometry = layout;
+    indices = layout.getIndexCount();
+    owner = new int[indices];
+    emptyNeighbors = new int[indices];
+    nextTo = new int[3 * indices];
+    cornerCount = new int[indices];
+    edgeCount = new int[indices];
+    playable = new boolean[indices];
+    neighbors = new int[indices * DIRECTIONS];
+    Arrays.fill(neighbors, -1);
+    for (int i = 0; i < layout.getCellCount(); i++) {
+      int cell = layout.cellAt(i);
+      cornerCount[cell] = layout.isCorner(cell) ? 1 : 0;
+      edgeCount[cell] = layout.isEdge(cell) ? 1 : 0;
+      playable[cell] = layout.isPlayable(cell);
+      for (int dir = 0; dir < DIRECTIONS; dir++) {
+        int[] ray = layout.ray(cell, dir);
+        if (ray.length > 0) {
+          neighbors[cell * DIRECTIONS + dir] = ray[0];
+        }
+      }
+    }
+  }
+}
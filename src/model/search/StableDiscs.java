@@ -0,0 +1,240 @@
+package model.search;
+
+import controller.PlayerType;
+import model.HexGeometry;
+import model.ReadOnlyBoardModel;
+import model.UndoRecord;
+
+import java.util.Arrays;
+
+/**
+ * Finds the discs that can never be flipped again, and keeps them up to
+ * date as moves are made and taken back during a search. A disc is stable
+ * when, along each of the three axes through it, either its line has no
+ * empty hex left to play, or one of its two neighbours on the line is the
+ * edge of the board, a hex that can never be played, or a stable disc of
+ * its own color. Corners are always stable once taken, and stability
+ * spreads inward from them and from full lines.
+ *
+ * <p>A move can only make discs stable, never the reverse, so after a move
+ * only the hexes it changed and the discs of lines it filled are checked,
+ * along with the neighbours of every disc found stable. The discs each move
+ * made stable are remembered, so taking it back just clears them.
+ */
+public final class StableDiscs {
+  private static final int NONE = 0;
+  private static final int BLACK = 1;
+  private static final int WHITE = 2;
+
+  private HexGeometry geometry;
+  private int[] owner = new int[0];
+  private boolean[] stable = new boolean[0];
+  private boolean[] playable = new boolean[0];
+  private int[] lineEmpties = new int[0];
+  private final int[] stableCount = new int[3];
+  private int[] work = new int[0];
+  private int[] trail = new int[64];
+  private int trailSize = 0;
+  private int[] frameTrail = new int[16];
+  private int frames = 0;
+
+  /**
+   * Finds the stable discs of a board from scratch and forgets every move.
+   */
+  public void reset(ReadOnlyBoardModel board) {
+    prepare(board.getGeometry());
+    Arrays.fill(owner, NONE);
+    Arrays.fill(stable, false);
+    Arrays.fill(lineEmpties, 0);
+    Arrays.fill(stableCount, 0);
+    trailSize = 0;
+    frames = 0;
+    int pending = 0;
+    for (int i = 0; i < geometry.getCellCount(); i++) {
+      int cell = geometry.cellAt(i);
+      owner[cell] = ownerOf(board.getPlayerTypeAt(cell));
+      if (owner[cell] != NONE) {
+        work[pending++] = cell;
+      } else if (playable[cell]) {
+        for (int axis = 0; axis < HexGeometry.AXES; axis++) {
+          lineEmpties[geometry.lineOf(cell, axis)]++;
+        }
+      }
+    }
+    spread(pending);
+    trailSize = 0;
+  }
+
+  /**
+   * Follows a move, or pass, just made on the board with makeMove.
+   */
+  public void moveMade(UndoRecord record) {
+    pushFrame();
+    if (record.isPass()) {
+      return;
+    }
+    int mover = ownerOf(record.getMover());
+    int cell = record.getCell();
+    int pending = 0;
+    owner[cell] = mover;
+    work[pending++] = cell;
+    for (int i = record.nextFlipped(0); i >= 0; i = record.nextFlipped(i + 1)) {
+      owner[i] = mover;
+      work[pending++] = i;
+    }
+    for (int axis = 0; axis < HexGeometry.AXES; axis++) {
+      int line = geometry.lineOf(cell, axis);
+      if (--lineEmpties[line] == 0) {
+        for (int other : geometry.lineCells(line)) {
+          if (owner[other] != NONE && !stable[other]) {
+            work[pending++] = other;
+          }
+        }
+      }
+    }
+    spread(pending);
+  }
+
+  /**
+   * Follows a move, or pass, about to be taken back with unmakeMove.
+   * Moves must be taken back in the reverse order they were made.
+   */
+  public void moveUnmade(UndoRecord record) {
+    if (frames == 0) {
+      throw new IllegalStateException("There is no move to take back.");
+    }
+    frames--;
+    while (trailSize > frameTrail[frames]) {
+      int cell = trail[--trailSize];
+      stable[cell] = false;
+      stableCount[owner[cell]]--;
+    }
+    if (record.isPass()) {
+      return;
+    }
+    int opponent = ownerOf(record.getMover().nextPlayer());
+    int cell = record.getCell();
+    for (int i = record.nextFlipped(0); i >= 0; i = record.nextFlipped(i + 1)) {
+      owner[i] = opponent;
+    }
+    owner[cell] = NONE;
+    for (int axis = 0; axis < HexGeometry.AXES; axis++) {
+      lineEmpties[geometry.lineOf(cell, axis)]++;
+    }
+  }
+
+  /**
+   * Determines if the disc at a hex can never be flipped.
+   */
+  public boolean isStable(int cell) {
+    return stable[cell];
+  }
+
+  /**
+   * Returns the number of stable discs of a player.
+   */
+  public int count(PlayerType type) {
+    return stableCount[ownerOf(type)];
+  }
+
+  /**
+   * Checks the discs on the work list, and the neighbours of every disc
+   * found stable, until no more discs become stable.
+   */
+  private void spread(int pending) {
+    while (pending > 0) {
+      int cell = work[--pending];
+      if (stable[cell] || owner[cell] == NONE || !isAnchored(cell)) {
+        continue;
+      }
+      stable[cell] = true;
+      stableCount[owner[cell]]++;
+      if (trailSize == trail.length) {
+        trail = Arrays.copyOf(trail, trailSize * 2);
+      }
+      trail[trailSize++] = cell;
+      for (int dir = 0; dir < 6; dir++) {
+        int[] ray = geometry.ray(cell, dir);
+        if (ray.length > 0 && owner[ray[0]] == owner[cell] && !stable[ray[0]]) {
+          if (pending == work.length) {
+            work = Arrays.copyOf(work, pending * 2);
+          }
+          work[pending++] = ray[0];
+        }
+      }
+    }
+  }
+
+  /**
+   * Determines if a disc is held in place along all three axes.
+   */
+  private boolean isAnchored(int cell) {
+    int color = owner[cell];
+    for (int axis = 0; axis < HexGeometry.AXES; axis++) {
+      int line = geometry.lineOf(cell, axis);
+      if (lineEmpties[line] == 0) {
+        continue;
+      }
+      int[] cells = geometry.lineCells(line);
+      int position = geometry.linePosition(cell, axis);
+      if (!holds(cells, position - 1, color) && !holds(cells, position + 1, color)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Determines if a position on a line, which may be past either end,
+   * keeps a disc of a color from being flipped from that side.
+   */
+  private boolean holds(int[] cells, int position, int color) {
+    if (position < 0 || position >= cells.length) {
+      return true;
+    }
+    int cell = cells[position];
+    return !playable[cell] || (owner[cell] == color && stable[cell]);
+  }
+
+  /**
+   * Returns the owner code of a player type.
+   */
+  private static int ownerOf(PlayerType type) {
+    if (type == PlayerType.BLACK) {
+      return BLACK;
+    } else if (type == PlayerType.WHITE) {
+      return WHITE;
+    }
+    return NONE;
+  }
+
+  /**
+   * Remembers where the trail stood before a move.
+   */
+  private void pushFrame() {
+    if (frames == frameTrail.length) {
+      frameTrail = Arrays.copyOf(frameTrail, frames * 2);
+    }
+    frameTrail[frames++] = trailSize;
+  }
+
+  /**
+   * Sizes the tables for a board layout.
+   */
+  private void prepare(HexGeometry layout) {
+    if (layout == geometry) {
+      return;
+    }
+    geometry = layout;
+    int indices = layout.getIndexCount();
+    owner = new int[indices];
+    stable = new boolean[indices];
+    playable = new boolean[indices];
+    work = new int[4 * indices];
+    lineEmpties = new int[layout.getLineCount()];
+    for (int i = 0; i < layout.getCellCount(); i++) {
+      int cell = layout.cellAt(i);
+      playable[cell] = layout.isPlayable(cell);
+    }
+  }
+}
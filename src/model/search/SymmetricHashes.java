@@ -0,0 +1,78 @@
+package model.search;
+
+import model.HexSymmetry;
+import model.ReadOnlyBoardModel;
+import model.UndoRecord;
+
+/**
+ * Keeps the hash of a board's image under every one of its twelve
+ * symmetries up to date as moves are made and taken back during a search,
+ * so that the canonical hash of each position costs a dozen comparisons
+ * rather than a pass over the board. The hashes leave out passes, which
+ * are the same for every image and are added back from the board.
+ *
+ * <p>Every change is an XOR, so taking a move back repeats the changes
+ * that making it did and nothing needs to be remembered between them.
+ */
+public final class SymmetricHashes {
+  private final long[] hashes = new long[HexSymmetry.COUNT];
+  private HexSymmetry symmetry;
+
+  /**
+   * Works out the hashes of a board's images from scratch.
+   */
+  public void reset(ReadOnlyBoardModel board) {
+    symmetry = HexSymmetry.of(board.getGeometry().getSize());
+    symmetry.hashes(board, hashes);
+  }
+
+  /**
+   * Follows a move, or pass, just made on the board with makeMove.
+   */
+  public void moveMade(UndoRecord record) {
+    apply(record);
+  }
+
+  /**
+   * Follows a move, or pass, about to be taken back with unmakeMove.
+   */
+  public void moveUnmade(UndoRecord record) {
+    apply(record);
+  }
+
+  /**
+   * Applies the changes a move makes to the hashes, which also undoes them.
+   */
+  private void apply(UndoRecord record) {
+    symmetry.switchTurn(hashes);
+    if (record.isPass()) {
+      return;
+    }
+    symmetry.addPiece(hashes, record.getMover(), record.getCell());
+    for (int i = record.nextFlipped(0); i >= 0; i = record.nextFlipped(i + 1)) {
+      symmetry.flipPiece(hashes, i);
+    }
+  }
+
+  /**
+   * Returns the symmetry taking the board to its canonical image.
+   */
+  public int canonicalSymmetry() {
+    return HexSymmetry.leastOf(hashes);
+  }
+
+  /**
+   * Returns the canonical hash of the board being followed, the same as
+   * HexSymmetry.canonicalHash gives.
+   */
+  public long canonicalHash(ReadOnlyBoardModel board) {
+    return hashes[HexSymmetry.leastOf(hashes)] ^ symmetry.passKeys(board);
+  }
+
+  /**
+   * Returns the symmetries of the board being followed.
+   */
+  public HexSymmetry getSymmetry() {
+    return symmetry;
+  }
+}
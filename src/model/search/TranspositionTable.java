@@ -0,0 +1,211 @@
+package model.search;
+
+import model.UndoRecord;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size table of search results keyed by position hash, which lets a
+ * search reuse the work done on a position reached through another order of
+ * moves. The table is made of two-slot buckets in one long array: the first
+ * slot keeps the deepest result, the second always takes the newest.
+ *
+ * <p>The table may be shared by many search threads without locks. Each slot
+ * stores its key XORed with its data, so a slot half-written by another
+ * thread fails the key check on read and is treated as a miss.
+ */
+public final class TranspositionTable {
+  /**
+   * The bound of an entry whose score is exact.
+   */
+  public static final int EXACT = 1;
+
+  /**
+   * The bound of an entry whose score is at least the stored score.
+   */
+  public static final int LOWER = 2;
+
+  /**
+   * The bound of an entry whose score is at most the stored score.
+   */
+  public static final int UPPER = 3;
+
+  /**
+   * The entry returned by probe when the position is not in the table.
+   */
+  public static final long MISS = 0L;
+
+  /**
+   * The largest table that fits in one array, in megabytes.
+   */
+  public static final int MAX_MEGABYTES = 8192;
+
+  private static final int BUCKET_BYTES = 4 * Long.BYTES;
+  private static final int MOVE_SHIFT = 32;
+  private static final int DEPTH_SHIFT = 48;
+  private static final int BOUND_SHIFT = 56;
+  private static final int AGE_SHIFT = 58;
+  private static final int AGE_MASK = 0x3F;
+
+  private final long[] slots;
+  private final int bucketMask;
+  private volatile int age = 0;
+  private final LongAdder probes = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder collisions = new LongAdder();
+
+  /**
+   * Creates a table taking up to a certain number of megabytes, rounded
+   * down to a power of two number of buckets.
+   * Throws an exception if the size is less than 1 MB or too large.
+   */
+  public TranspositionTable(int megabytes) {
+    if (megabytes < 1 || megabytes > MAX_MEGABYTES) {
+      throw new IllegalArgumentException(
+              "The table must be between 1 and " + MAX_MEGABYTES + " MB.");
+    }
+    long buckets = Long.highestOneBit((long) megabytes * 1024 * 1024 / BUCKET_BYTES);
+    this.slots = new long[(int) buckets * 4];
+    this.bucketMask = (int) buckets - 1;
+  }
+
+  /**
+   * Returns the stored entry of a position, or MISS. Read the entry's
+   * parts with scoreOf, depthOf, boundOf and moveOf.
+   */
+  public long probe(long hash) {
+    probes.increment();
+    int base = ((int) hash & bucketMask) << 2;
+    for (int slot = base; slot < base + 4; slot += 2) {
+      long data = slots[slot + 1];
+      if ((slots[slot] ^ data) == hash && data != MISS) {
+        hits.increment();
+        return data;
+      }
+    }
+    return MISS;
+  }
+
+  /**
+   * Stores the result of searching a position to a certain depth, with the
+   * bound of its score and the best move found, or UndoRecord.PASS for none.
+   * An entry for the same position is replaced. Otherwise a result at
+   * least as deep as the first slot's, or any result when the first slot
+   * is from an earlier move, goes in the first slot, and the rest go in
+   * the second.
+   */
+  public void store(long hash, int depth, int score, int bound, int cell) {
+    long data = pack(depth, score, bound, cell);
+    int base = ((int) hash & bucketMask) << 2;
+    int target = base + 2;
+    long firstData = slots[base + 1];
+    if ((slots[base] ^ firstData) == hash && firstData != MISS) {
+      target = base;
+    } else if ((slots[base + 2] ^ slots[base + 3]) != hash || slots[base + 3] == MISS) {
+      if (firstData == MISS || depth >= depthOf(firstData) || ageOf(firstData) != age) {
+        target = base;
+      }
+      long evicted = slots[target + 1];
+      if (evicted != MISS) {
+        collisions.increment();
+      }
+    }
+    slots[target] = hash ^ data;
+    slots[target + 1] = data;
+  }
+
+  /**
+   * Packs the parts of an entry into one long.
+   */
+  private long pack(int depth, int score, int bound, int cell) {
+    return (score & 0xFFFFFFFFL)
+            | ((long) ((cell + 1) & 0xFFFF) << MOVE_SHIFT)
+            | ((long) (Math.min(depth, 0xFF) & 0xFF) << DEPTH_SHIFT)
+            | ((long) bound << BOUND_SHIFT)
+            | ((long) (age & AGE_MASK) << AGE_SHIFT);
+  }
+
+  /**
+   * Returns the score stored in an entry.
+   */
+  public static int scoreOf(long entry) {
+    return (int) entry;
+  }
+
+  /**
+   * Returns the hex index of the best move stored in an entry,
+   * or UndoRecord.PASS when it has none.
+   */
+  public static int moveOf(long entry) {
+    int stored = (int) (entry >>> MOVE_SHIFT) & 0xFFFF;
+    return stored == 0 ? UndoRecord.PASS : stored - 1;
+  }
+
+  /**
+   * Returns the depth an entry's position was searched to.
+   */
+  public static int depthOf(long entry) {
+    return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+  }
+
+  /**
+   * Returns the bound of an entry's score: EXACT, LOWER or UPPER.
+   */
+  public static int boundOf(long entry) {
+    return (int) (entry >>> BOUND_SHIFT) & 0x3;
+  }
+
+  /**
+   * Returns the move an entry was stored during.
+   */
+  private static int ageOf(long entry) {
+    return (int) (entry >>> AGE_SHIFT) & AGE_MASK;
+  }
+
+  /**
+   * Marks the start of the search for a new move, so that entries from
+   * earlier moves give way to new ones.
+   */
+  public void newSearch() {
+    age = (age + 1) & AGE_MASK;
+  }
+
+  /**
+   * Removes every entry and resets the counters.
+   */
+  public void clear() {
+    Arrays.fill(slots, 0L);
+    probes.reset();
+    hits.reset();
+    collisions.reset();
+  }
+
+  /**
+   * Returns the number of entries the table can hold.
+   */
+  public int getCapacity() {
+    return slots.length / 2;
+  }
+
+  /**
+   * Returns the number of lookups since the table was created or cleared.
+   */
+  public long getProbes() {
+    return probes.sum();
+  }
+
+  /**
+   * Returns the number of lookups that found their position.
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of stores that overwrote a different position.
+   */
+  public long getCollisions() {
+    return collisions.sum();
+  }
+}
@@ -0,0 +1,249 @@
+package model.strategies;
+
+import controller.Player;
+import model.AbstractBitBoard;
+import model.HexGeometry;
+import model.Move;
+import model.ReadOnlyBoardModel;
+import model.UndoRecord;
+import model.search.AlphaBetaSearch;
+import model.search.BasicEvaluator;
+import model.search.Evaluator;
+import model.search.TranspositionTable;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Represents a strategy that looks a fixed number of moves ahead with an
+ * alpha-beta search, instead of judging only the move about to be played.
+ * The search runs on a bitboard copy of the board, so the board passed in
+ * is never changed. Results are kept in a transposition table that lasts
+ * between moves. Passes when the player has no legal moves.
+ *
+ * <p>With more than one thread, helper threads search the same position
+ * alongside the main search, each on its own board copy, half of them one
+ * move deeper. They share only the transposition table, so their results
+ * reach the main search as table hits. The move played is always the main
+ * search's.
+ */
+public class AlphaBetaStrategy implements DepthLimitedStrategy {
+  /**
+   * The depth used when none is given.
+   */
+  public static final int DEFAULT_DEPTH = 6;
+
+  /**
+   * The size of the transposition table used when none is given, in megabytes.
+   */
+  public static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+  private final int depth;
+  private final TranspositionTable table;
+  private final AlphaBetaSearch search;
+  private final AlphaBetaSearch[] helpers;
+  private final Future<?>[] running;
+  private final ExecutorService helperPool;
+  private long lastHash;
+  private int lastScore = 0;
+
+  /**
+   * Creates a strategy that searches to the default depth.
+   */
+  public AlphaBetaStrategy() {
+    this(DEFAULT_DEPTH);
+  }
+
+  /**
+   * Creates a strategy that searches a certain number of moves ahead.
+   * Throws an exception if the depth is less than 1.
+   */
+  public AlphaBetaStrategy(int depth) {
+    this(depth, new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+  }
+
+  /**
+   * Creates a strategy that searches a certain number of moves ahead and
+   * keeps its results in a certain table.
+   * Throws an exception if the depth is less than 1 or the table is null.
+   */
+  public AlphaBetaStrategy(int depth, TranspositionTable table) {
+    this(depth, table, 1);
+  }
+
+  /**
+   * Creates a strategy that searches a certain number of moves ahead on a
+   * certain number of threads, which share a table.
+   * Throws an exception if the depth or thread count is less than 1,
+   * or the table is null.
+   */
+  public AlphaBetaStrategy(int depth, TranspositionTable table, int threads) {
+    this(depth, table, threads, BasicEvaluator::new);
+  }
+
+  /**
+   * Creates a strategy that searches a certain number of moves ahead on a
+   * certain number of threads, which share a table, scoring positions with
+   * evaluators from a supplier, one per thread.
+   * Throws an exception if the depth or thread count is less than 1,
+   * or the table or supplier is null.
+   */
+  public AlphaBetaStrategy(int depth, TranspositionTable table, int threads,
+                           Supplier<Evaluator> evaluators) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("The search depth must be at least 1.");
+    }
+    if (table == null) {
+      throw new IllegalArgumentException("The transposition table cannot be null.");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("The search needs at least 1 thread.");
+    }
+    if (evaluators == null) {
+      throw new IllegalArgumentException("The evaluator supplier cannot be null.");
+    }
+    this.depth = depth;
+    this.table = table;
+    this.search = new AlphaBetaSearch(table, evaluators.get());
+    this.helpers = new AlphaBetaSearch[threads - 1];
+    this.running = new Future<?>[threads - 1];
+    for (int i = 0; i < helpers.length; i++) {
+      helpers[i] = new AlphaBetaSearch(table, evaluators.get());
+    }
+    this.helperPool = helpers.length == 0 ? null : Executors.newFixedThreadPool(helpers.length,
+        task -> {
+          Thread thread = new Thread(task, "search-helper");
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  /**
+   * Selects the move with the best score after searching the board
+   * to this strategy's depth.
+   */
+  @Override
+  public Optional<Move> selectMove(ReadOnlyBoardModel board, Player player) {
+    return selectMove(board, player, depth, AlphaBetaSearch.NO_DEADLINE);
+  }
+
+  /**
+   * Selects the move with the best score after searching the board to a
+   * certain depth. When the position is the one searched last time, the
+   * previous best move is tried first and the previous score is used as
+   * the aspiration window.
+   */
+  @Override
+  public Optional<Move> selectMove(ReadOnlyBoardModel board, Player player,
+                                   int depth, long deadline) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("The search depth must be at least 1.");
+    }
+    AbstractBitBoard searchBoard = AbstractBitBoard.copyOf(board);
+    if (searchBoard.getCurrentTurn() != player.getType()) {
+      searchBoard.switchTurns();
+    }
+    boolean newPosition = searchBoard.getPositionHash() != lastHash;
+    if (newPosition) {
+      search.clearBestCell();
+      search.ageHistory();
+      table.newSearch();
+      lastHash = searchBoard.getPositionHash();
+    }
+
+    search.start(deadline);
+    startHelpers(searchBoard, depth, deadline, newPosition);
+    int score = search.searchAspirated(searchBoard, depth, lastScore);
+    stopHelpers();
+    if (search.isStopped()) {
+      return Optional.empty();
+    }
+    lastScore = score;
+    int cell = search.getBestCell();
+    if (cell == UndoRecord.PASS) {
+      return Optional.empty();
+    }
+    HexGeometry geometry = searchBoard.getGeometry();
+    int x = geometry.moveX(cell);
+    int y = geometry.moveY(cell);
+    return Optional.of(new Move(x, y, searchBoard.calculateCaptures(x, y, player.getType())));
+  }
+
+  /**
+   * Starts every helper searching its own copy of a board, the odd ones
+   * a move deeper than the main search.
+   */
+  private void startHelpers(AbstractBitBoard board, int depth, long deadline,
+                            boolean newPosition) {
+    int guess = lastScore;
+    for (int i = 0; i < helpers.length; i++) {
+      AlphaBetaSearch helper = helpers[i];
+      AbstractBitBoard copy = AbstractBitBoard.copyOf(board);
+      int helperDepth = depth + (i % 2);
+      if (newPosition) {
+        helper.clearBestCell();
+        helper.ageHistory();
+      }
+      helper.start(deadline);
+      running[i] = helperPool.submit(() -> helper.searchAspirated(copy, helperDepth, guess));
+    }
+  }
+
+  /**
+   * Stops every helper and waits for them to finish, which takes at most
+   * a few thousand positions each. Throws an exception if a helper failed.
+   */
+  private void stopHelpers() {
+    for (AlphaBetaSearch helper : helpers) {
+      helper.stop();
+    }
+    boolean interrupted = false;
+    for (Future<?> helperRun : running) {
+      while (true) {
+        try {
+          helperRun.get();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          throw new IllegalStateException("A helper search failed.", e.getCause());
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Returns the number of positions visited by every thread of this strategy.
+   */
+  public long getNodes() {
+    long nodes = search.getNodes();
+    for (AlphaBetaSearch helper : helpers) {
+      nodes += helper.getNodes();
+    }
+    return nodes;
+  }
+
+  @Override
+  public boolean wasStopped() {
+    return search.isStopped();
+  }
+
+  @Override
+  public boolean wasSolved() {
+    return !search.isStopped() && AlphaBetaSearch.isProven(lastScore);
+  }
+
+  /**
+   * Returns the transposition table, for reading its hit and collision counts.
+   */
+  public TranspositionTable getTable() {
+    return table;
+  }
+}
@@ -1,10 +1,11 @@
 package model.strategies;
 
 import controller.Player;
+import model.HexGeometry;
 import model.Move;
+import model.MoveList;
 import model.ReadOnlyBoardModel;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.logging.FileHandler;
 import java.util.logging.Logger;
@@ -14,8 +15,9 @@ import java.util.logging.SimpleFormatter;
  * Represents the capture strategy for an AIPlayer.
  * Capture as many pieces on this turn as possible.
  */
-public class CaptureStrategy implements FallibleHexGameStrategy {
+public class CaptureStrategy implements MoveListStrategy {
   private static final Logger logger = Logger.getLogger(CaptureStrategy.class.getName());
+  private final MoveList validMoves = new MoveList();
 
   static {
     try {
@@ -32,24 +34,33 @@ public class CaptureStrategy implements FallibleHexGameStrategy {
    */
   @Override
   public Optional<Move> selectMove(ReadOnlyBoardModel board, Player player) {
-    logger.info("Selecting move for player: " + player.getName() + " " + player.getColor());
-    List<Move> validMoves = board.getValidMovesWithCaptures(player);
+    board.generateMoves(player.getType(), validMoves);
+    return selectFrom(board, player, validMoves);
+  }
 
-    if (validMoves.isEmpty()) {
+  /**
+   * Selects the move capturing the most pieces among the legal moves.
+   */
+  @Override
+  public Optional<Move> selectFrom(ReadOnlyBoardModel board, Player player,
+                                   MoveList moves) {
+    logger.info("Selecting move for player: " + player.getName() + " " + player.getColor());
+    if (moves.isEmpty()) {
       logger.info("No valid moves available. Passing turn.");
       return Optional.empty();
     }
-    Move bestMove = validMoves.get(0);
-    for (Move move : validMoves) {
-      if (move.getPiecesCaught() > bestMove.getPiecesCaught()) {
-        bestMove = move;
-      } else if (move.getPiecesCaught() == bestMove.getPiecesCaught()) {
-        if (move.getY() < bestMove.getY()
-                || (move.getX() == bestMove.getX() && move.getY() < bestMove.getY())) {
-          bestMove = move;
-        }
+    HexGeometry geometry = board.getGeometry();
+    int best = 0;
+    for (int i = 1; i < moves.size(); i++) {
+      if (moves.captures(i) > moves.captures(best)) {
+        best = i;
+      } else if (moves.captures(i) == moves.captures(best)
+              && geometry.moveY(moves.cell(i)) < geometry.moveY(moves.cell(best))) {
+        best = i;
       }
     }
+    Move bestMove = new Move(geometry.moveX(moves.cell(best)),
+            geometry.moveY(moves.cell(best)), moves.captures(best));
     logger.info("Selected move: " + bestMove.getX() + ", " + bestMove.getY());
     logger.info("Capturing " + bestMove.getPiecesCaught() + " pieces!");
     return Optional.of(bestMove);
@@ -0,0 +1,21 @@
+package model.strategies;
+
+import java.util.Optional;
+
+import controller.Player;
+import model.Move;
+import model.ReadOnlyBoardModel;
+
+/**
+ * Represents a strategy that spends a time budget on each move and can be
+ * told to finish by an earlier deadline, so that a strategy falling back
+ * on it can keep the whole move within one budget.
+ */
+public interface DeadlineStrategy extends FallibleHexGameStrategy {
+
+  /**
+   * Selects a move as selectMove does, but finishing by a deadline on
+   * System.nanoTime() when it comes before the end of the budget.
+   */
+  Optional<Move> selectMove(ReadOnlyBoardModel board, Player player, long deadline);
+}
@@ -0,0 +1,34 @@
+package model.strategies;
+
+import java.util.Optional;
+
+import controller.Player;
+import model.Move;
+import model.ReadOnlyBoardModel;
+
+/**
+ * Represents a strategy that searches a certain number of moves ahead and
+ * can be told to give up at a deadline, so that it can be driven by an
+ * IterativeDeepeningStrategy.
+ */
+public interface DepthLimitedStrategy extends FallibleHexGameStrategy {
+
+  /**
+   * Selects a move by searching a certain number of moves ahead, giving up
+   * once System.nanoTime() passes the deadline. Returns an empty Optional
+   * when the player must pass, or when the search gave up.
+   */
+  Optional<Move> selectMove(ReadOnlyBoardModel board, Player player, int depth, long deadline);
+
+  /**
+   * Determines if the last search gave up at its deadline before finishing,
+   * in which case the move it returned must not be used.
+   */
+  boolean wasStopped();
+
+  /**
+   * Determines if the last search finished and proved the game won or
+   * lost, so that searching deeper cannot change the result.
+   */
+  boolean wasSolved();
+}
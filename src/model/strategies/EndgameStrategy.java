@@ -0,0 +1,96 @@
+package model.strategies;
+
+import controller.Player;
+import controller.PlayerType;
+import model.AbstractBitBoard;
+import model.HexGeometry;
+import model.Move;
+import model.ReadOnlyBoardModel;
+import model.UndoRecord;
+import model.search.EndgameSolver;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a strategy that plays perfectly once few enough hexes are
+ * left empty, by solving the game to the end, and uses another strategy
+ * before then. Only hexes that can still be played are counted. A solve
+ * gets half the time budget of the move; when it does not finish, the
+ * other strategy picks the move instead, and a DeadlineStrategy is told to
+ * finish by the end of the budget, so the move as a whole stays within it.
+ */
+public class EndgameStrategy implements FallibleHexGameStrategy {
+  /**
+   * The number of empty hexes at which solving starts when none is given.
+   */
+  public static final int DEFAULT_MAX_EMPTIES = 14;
+
+  private final IStrategy fallback;
+  private final int maxEmpties;
+  private final long budgetNanos;
+  private final boolean exact;
+  private final EndgameSolver solver = new EndgameSolver();
+
+  /**
+   * Creates a strategy that solves exactly from the default number of
+   * empty hexes, within the same default budget as iterative deepening.
+   */
+  public EndgameStrategy(IStrategy fallback) {
+    this(fallback, DEFAULT_MAX_EMPTIES, IterativeDeepeningStrategy.DEFAULT_BUDGET_MILLIS, true);
+  }
+
+  /**
+   * Creates a strategy that solves once at most a certain number of hexes
+   * are empty, within a time budget per move. An exact solve finds the move
+   * with the best final disc differential; otherwise any winning move, or
+   * else a drawing move, is played, which is much faster to find.
+   * Throws an exception if the fallback is null or a number is not positive.
+   */
+  public EndgameStrategy(IStrategy fallback, int maxEmpties, long budgetMillis, boolean exact) {
+    if (fallback == null) {
+      throw new IllegalArgumentException("The fallback strategy cannot be null.");
+    }
+    if (maxEmpties < 1 || budgetMillis <= 0) {
+      throw new IllegalArgumentException("The empty count and time budget must be positive.");
+    }
+    this.fallback = fallback;
+    this.maxEmpties = maxEmpties;
+    this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    this.exact = exact;
+  }
+
+  /**
+   * Selects the solved move when the board is nearly full and the solve
+   * finishes in time, and the fallback strategy's move otherwise.
+   */
+  @Override
+  public Optional<Move> selectMove(ReadOnlyBoardModel board, Player player) {
+    HexGeometry layout = board.getGeometry();
+    int deadHexes = layout.getCellCount() - layout.getPlayableCount();
+    if (board.countPieces(PlayerType.EMPTY) - deadHexes > maxEmpties) {
+      return fallback.selectMove(board, player);
+    }
+    AbstractBitBoard searchBoard = AbstractBitBoard.copyOf(board);
+    if (searchBoard.getCurrentTurn() != player.getType()) {
+      searchBoard.switchTurns();
+    }
+    long start = System.nanoTime();
+    solver.start(start + budgetNanos / 2);
+    solver.solve(searchBoard, exact);
+    if (solver.isStopped()) {
+      if (fallback instanceof DeadlineStrategy) {
+        return ((DeadlineStrategy) fallback).selectMove(board, player, start + budgetNanos);
+      }
+      return fallback.selectMove(board, player);
+    }
+    int cell = solver.getBestCell();
+    if (cell == UndoRecord.PASS) {
+      return Optional.empty();
+    }
+    HexGeometry geometry = searchBoard.getGeometry();
+    int x = geometry.moveX(cell);
+    int y = geometry.moveY(cell);
+    return Optional.of(new Move(x, y, searchBoard.calculateCaptures(x, y, player.getType())));
+  }
+}
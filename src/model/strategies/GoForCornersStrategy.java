@@ -1,11 +1,11 @@
 package model.strategies;
 
 import controller.Player;
+import model.HexGeometry;
 import model.Move;
+import model.MoveList;
 import model.ReadOnlyBoardModel;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 import java.util.logging.FileHandler;
 import java.util.logging.Logger;
@@ -15,8 +15,9 @@ import java.util.logging.SimpleFormatter;
  * Represents the strategy for the AIPlayer
  * that goes for the corners in a board.
  */
-public class GoForCornersStrategy implements FallibleHexGameStrategy {
+public class GoForCornersStrategy implements MoveListStrategy {
   private static final Logger logger = Logger.getLogger(CaptureStrategy.class.getName());
+  private final MoveList validMoves = new MoveList();
 
   static {
     try {
@@ -33,43 +34,52 @@ public class GoForCornersStrategy implements FallibleHexGameStrategy {
    */
   @Override
   public Optional<Move> selectMove(ReadOnlyBoardModel board, Player player) {
+    board.generateMoves(player.getType(), validMoves);
+    return selectFrom(board, player, validMoves);
+  }
+
+  /**
+   * Selects the corner move capturing the most pieces among the legal
+   * moves, or else the move furthest along x and then y.
+   */
+  @Override
+  public Optional<Move> selectFrom(ReadOnlyBoardModel board, Player player,
+                                   MoveList moves) {
     logger.info("Selecting move for player: " + player.getName() + " " + player.getColor());
-    List<Move> cornerMoves = new ArrayList<>();
-    List<Move> validMoves = board.getValidMovesWithCaptures(player);
-    if (validMoves.isEmpty()) {
+    if (moves.isEmpty()) {
       logger.info("No valid moves available. Passing turn.");
       //player.setHasPassed();
       return Optional.empty();
     }
 
-    for (Move move : validMoves) {
-      if (isCornerMove(move, board.getBoardSize())) {
-        cornerMoves.add(move);
+    HexGeometry geometry = board.getGeometry();
+    int bestCorner = -1;
+    for (int i = 0; i < moves.size(); i++) {
+      int cell = moves.cell(i);
+      if (isCornerMove(geometry.moveX(cell), geometry.moveY(cell), board.getBoardSize())
+              && (bestCorner < 0 || moves.captures(i) > moves.captures(bestCorner))) {
+        bestCorner = i;
       }
     }
 
-    if (cornerMoves.isEmpty()) {
-      Move bestMoveWithNoCorner = validMoves.get(0);
-      for (Move move : validMoves) {
-        if (move.getX() > bestMoveWithNoCorner.getX()) {
-          bestMoveWithNoCorner = move;
-        }
-        if (move.getX() == bestMoveWithNoCorner.getX()) {
-          if (move.getY() > bestMoveWithNoCorner.getY()) {
-            bestMoveWithNoCorner = move;
-          }
+    if (bestCorner < 0) {
+      int best = 0;
+      for (int i = 1; i < moves.size(); i++) {
+        int x = geometry.moveX(moves.cell(i));
+        int bestX = geometry.moveX(moves.cell(best));
+        if (x > bestX || (x == bestX
+                && geometry.moveY(moves.cell(i)) > geometry.moveY(moves.cell(best)))) {
+          best = i;
         }
       }
+      Move bestMoveWithNoCorner = new Move(geometry.moveX(moves.cell(best)),
+              geometry.moveY(moves.cell(best)), moves.captures(best));
       logger.info("Selected move: "
               + bestMoveWithNoCorner.getX() + ", " + bestMoveWithNoCorner.getY());
       return Optional.of(bestMoveWithNoCorner);
     } else {
-      Move bestMove = cornerMoves.get(0);
-      for (Move cornerMove : cornerMoves) {
-        if (cornerMove.getPiecesCaught() > bestMove.getPiecesCaught()) {
-          bestMove = cornerMove;
-        }
-      }
+      Move bestMove = new Move(geometry.moveX(moves.cell(bestCorner)),
+              geometry.moveY(moves.cell(bestCorner)), moves.captures(bestCorner));
       logger.info("Selected move: " + bestMove.getX() + ", " + bestMove.getY());
       logger.info("Capturing " + bestMove.getPiecesCaught() + " pieces!");
       return Optional.of(bestMove);
@@ -79,9 +89,7 @@ public class GoForCornersStrategy implements FallibleHexGameStrategy {
   /**
    * Determines if the selected move involves a corner hex.
    */
-  private boolean isCornerMove(Move move, int boardSize) {
-    int x = move.getX();
-    int y = move.getY();
+  private boolean isCornerMove(int x, int y, int boardSize) {
     return (x == 0 && y == (boardSize / 2) || (x == 0 && y == (-(boardSize / 2))) ||
             (x == (boardSize / 2) && y == -(boardSize / 2)) ||
             (x == (-(boardSize / 2)) && y == (boardSize / 2)));
@@ -0,0 +1,99 @@
+package model.strategies;
+
+import controller.Player;
+import controller.PlayerType;
+import model.HexGeometry;
+import model.Move;
+import model.ReadOnlyBoardModel;
+import model.search.AlphaBetaSearch;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a strategy that searches one move deeper at a time until a
+ * time budget for the move runs out, so the time a move takes is about the
+ * same on every board size. The move from the deepest finished search is
+ * played; a search cut off by the budget is thrown away.
+ */
+public class IterativeDeepeningStrategy implements DeadlineStrategy {
+  /**
+   * The time budget per move used when none is given, in milliseconds.
+   */
+  public static final long DEFAULT_BUDGET_MILLIS = 1000;
+
+  private final DepthLimitedStrategy strategy;
+  private final long budgetNanos;
+  private int lastDepth = 0;
+
+  /**
+   * Creates a strategy that deepens another within the default time budget.
+   */
+  public IterativeDeepeningStrategy(DepthLimitedStrategy strategy) {
+    this(strategy, DEFAULT_BUDGET_MILLIS);
+  }
+
+  /**
+   * Creates a strategy that deepens another within a time budget per move.
+   * Throws an exception if the strategy is null or the budget is not positive.
+   */
+  public IterativeDeepeningStrategy(DepthLimitedStrategy strategy, long budgetMillis) {
+    if (strategy == null) {
+      throw new IllegalArgumentException("The strategy cannot be null.");
+    }
+    if (budgetMillis <= 0) {
+      throw new IllegalArgumentException("The time budget must be positive.");
+    }
+    this.strategy = strategy;
+    this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+  }
+
+  /**
+   * Selects the move found by the deepest search finished within the budget.
+   * The first depth always runs to the end, so a legal move is returned even
+   * when the budget is tiny. Stops early once a search proves the game won
+   * or lost, once the depth covers every playable empty hex, or once half
+   * the budget is spent, since the next depth would almost certainly not
+   * finish in time.
+   */
+  @Override
+  public Optional<Move> selectMove(ReadOnlyBoardModel board, Player player) {
+    return selectMove(board, player, AlphaBetaSearch.NO_DEADLINE);
+  }
+
+  /**
+   * Selects a move as selectMove does, within whatever is left of the
+   * budget at a deadline that comes before its end. The first depth still
+   * always runs to the end.
+   */
+  @Override
+  public Optional<Move> selectMove(ReadOnlyBoardModel board, Player player, long deadline) {
+    long start = System.nanoTime();
+    long end = Math.min(start + budgetNanos, deadline);
+    HexGeometry geometry = board.getGeometry();
+    int deadHexes = geometry.getCellCount() - geometry.getPlayableCount();
+    int maxDepth = Math.max(1, board.countPieces(PlayerType.EMPTY) - deadHexes);
+
+    Optional<Move> best = strategy.selectMove(board, player, 1, AlphaBetaSearch.NO_DEADLINE);
+    lastDepth = 1;
+    for (int depth = 2; depth <= maxDepth && !strategy.wasSolved(); depth++) {
+      if (System.nanoTime() - start > (end - start) / 2) {
+        break;
+      }
+      Optional<Move> move = strategy.selectMove(board, player, depth, end);
+      if (strategy.wasStopped()) {
+        break;
+      }
+      best = move;
+      lastDepth = depth;
+    }
+    return best;
+  }
+
+  /**
+   * Returns the depth of the deepest finished search for the last move.
+   */
+  public int getLastDepth() {
+    return lastDepth;
+  }
+}
@@ -0,0 +1,101 @@
+package model.strategies;
+
+import controller.Player;
+import model.HexGeometry;
+import model.Move;
+import model.MoveList;
+import model.ReadOnlyBoardModel;
+import model.UndoRecord;
+import model.search.MonteCarloSearch;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a strategy that plays the move whose random playouts went
+ * best, found by a Monte-Carlo tree search within a time budget per move.
+ * The tree is kept between moves, so a search starts from the playouts
+ * already spent on the position reached. Passes when the player has no
+ * legal moves.
+ */
+public class MonteCarloStrategy implements FallibleHexGameStrategy {
+  /**
+   * The time budget per move used when none is given, in milliseconds.
+   */
+  public static final long DEFAULT_BUDGET_MILLIS = 1000;
+
+  /**
+   * The number of tree nodes used when none is given.
+   */
+  public static final int DEFAULT_CAPACITY = 1 << 20;
+
+  private final MonteCarloSearch search;
+  private final long budgetNanos;
+  private final int maxPlayouts;
+  private final MoveList legalMoves = new MoveList();
+
+  /**
+   * Creates a strategy with the default budget and tree size, on one thread.
+   */
+  public MonteCarloStrategy() {
+    this(DEFAULT_BUDGET_MILLIS, DEFAULT_CAPACITY, 1);
+  }
+
+  /**
+   * Creates a strategy that searches for a certain time per move, with a
+   * tree of a certain number of nodes, on a certain number of threads.
+   * Throws an exception if the budget is not positive, the capacity is
+   * less than 2 or the thread count is less than 1.
+   */
+  public MonteCarloStrategy(long budgetMillis, int capacity, int threads) {
+    this(budgetMillis, Integer.MAX_VALUE, capacity, threads);
+  }
+
+  /**
+   * Creates a strategy that stops at a time budget or a number of playouts
+   * per move, whichever comes first, with a tree of a certain number of
+   * nodes, on a certain number of threads.
+   * Throws an exception if the budget or playout count is not positive,
+   * the capacity is less than 2 or the thread count is less than 1.
+   */
+  public MonteCarloStrategy(long budgetMillis, int maxPlayouts, int capacity, int threads) {
+    if (budgetMillis <= 0) {
+      throw new IllegalArgumentException("The time budget must be positive.");
+    }
+    if (maxPlayouts <= 0) {
+      throw new IllegalArgumentException("The number of playouts must be positive.");
+    }
+    this.search = new MonteCarloSearch(capacity, threads);
+    this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+    this.maxPlayouts = maxPlayouts;
+  }
+
+  /**
+   * Selects the root move with the most playouts after searching the board.
+   */
+  @Override
+  public Optional<Move> selectMove(ReadOnlyBoardModel board, Player player) {
+    long deadline = System.nanoTime() + budgetNanos;
+    search.setRoot(board, player.getType());
+    int cell = search.search(deadline, maxPlayouts);
+    if (cell == UndoRecord.PASS) {
+      return Optional.empty();
+    }
+    int captures = 0;
+    board.generateMoves(player.getType(), legalMoves);
+    for (int i = 0; i < legalMoves.size(); i++) {
+      if (legalMoves.cell(i) == cell) {
+        captures = legalMoves.captures(i);
+      }
+    }
+    HexGeometry geometry = board.getGeometry();
+    return Optional.of(new Move(geometry.moveX(cell), geometry.moveY(cell), captures));
+  }
+
+  /**
+   * Returns the search, for reading its playout and tree size counts.
+   */
+  public MonteCarloSearch getSearch() {
+    return search;
+  }
+}
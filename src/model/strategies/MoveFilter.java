@@ -0,0 +1,15 @@
+package model.strategies;
+
+import model.ReadOnlyBoardModel;
+
+/**
+ * Represents a test of a single candidate move, used by the filter stages
+ * of MoveStages.
+ */
+public interface MoveFilter {
+
+  /**
+   * Determines if a move to a hex index capturing a number of pieces passes.
+   */
+  boolean test(ReadOnlyBoardModel board, int cell, int captures);
+}
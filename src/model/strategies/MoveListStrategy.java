@@ -0,0 +1,22 @@
+package model.strategies;
+
+import java.util.Optional;
+
+import controller.Player;
+import model.Move;
+import model.MoveList;
+import model.ReadOnlyBoardModel;
+
+/**
+ * Represents a strategy that can choose among legal moves generated by
+ * someone else, so that strategies combined with TryTwo or a StrategyChain
+ * share one move generation per turn.
+ */
+public interface MoveListStrategy extends FallibleHexGameStrategy {
+
+  /**
+   * Selects a move from the legal moves of a player on a board, with their
+   * capture counts, or none to fail. The list must be left as it was.
+   */
+  Optional<Move> selectFrom(ReadOnlyBoardModel board, Player player, MoveList moves);
+}
@@ -0,0 +1,67 @@
+package model.strategies;
+
+import controller.Player;
+import model.HexGeometry;
+import model.Move;
+import model.MoveList;
+import model.ReadOnlyBoardModel;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Represents a strategy made of stages run in order over the legal moves,
+ * each narrowing the candidates: filters, scorers keeping the best, and
+ * tie-breakers. The first candidate left is played, and the strategy fails
+ * when none is left. The stages work on a copy of the move list, so the
+ * list given to selectFrom can be shared with other strategies.
+ */
+public class MovePipeline implements MoveListStrategy {
+  private final List<MoveStage> stages;
+  private final MoveList generated = new MoveList();
+  private final MoveList candidates = new MoveList();
+
+  /**
+   * Creates a strategy running a number of stages in order.
+   * Throws an exception if a stage is null.
+   */
+  public MovePipeline(MoveStage... stages) {
+    for (MoveStage stage : stages) {
+      if (stage == null) {
+        throw new IllegalArgumentException("A stage cannot be null.");
+      }
+    }
+    this.stages = Arrays.asList(stages.clone());
+  }
+
+  /**
+   * Generates the legal moves and selects among them.
+   */
+  @Override
+  public Optional<Move> selectMove(ReadOnlyBoardModel board, Player player) {
+    board.generateMoves(player.getType(), generated);
+    return selectFrom(board, player, generated);
+  }
+
+  /**
+   * Runs the stages over a copy of the moves and selects the first left.
+   */
+  @Override
+  public Optional<Move> selectFrom(ReadOnlyBoardModel board, Player player, MoveList moves) {
+    candidates.copyFrom(moves);
+    for (MoveStage stage : stages) {
+      if (candidates.isEmpty()) {
+        break;
+      }
+      stage.narrow(board, player.getType(), candidates);
+    }
+    if (candidates.isEmpty()) {
+      return Optional.empty();
+    }
+    HexGeometry geometry = board.getGeometry();
+    int cell = candidates.cell(0);
+    return Optional.of(new Move(geometry.moveX(cell), geometry.moveY(cell),
+            candidates.captures(0)));
+  }
+}
@@ -0,0 +1,15 @@
+package model.strategies;
+
+import model.ReadOnlyBoardModel;
+
+/**
+ * Represents a score for a single candidate move, used by the scoring
+ * stages of MoveStages. Higher scores are better.
+ */
+public interface MoveScorer {
+
+  /**
+   * Returns the score of a move to a hex index capturing a number of pieces.
+   */
+  int score(ReadOnlyBoardModel board, int cell, int captures);
+}
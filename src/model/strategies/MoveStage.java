@@ -0,0 +1,18 @@
+package model.strategies;
+
+import controller.PlayerType;
+import model.MoveList;
+import model.ReadOnlyBoardModel;
+
+/**
+ * Represents one stage of a MovePipeline: a filter, scorer or tie-breaker
+ * that narrows a list of candidate moves in place.
+ */
+public interface MoveStage {
+
+  /**
+   * Removes the candidates this stage rules out for a player on a board,
+   * keeping the rest in their order.
+   */
+  void narrow(ReadOnlyBoardModel board, PlayerType player, MoveList moves);
+}
@@ -0,0 +1,91 @@
+package model.strategies;
+
+import model.MoveList;
+
+/**
+ * Builds the usual stages of a MovePipeline out of filters and scorers.
+ * Every stage works on the packed moves in place and allocates nothing.
+ */
+public final class MoveStages {
+  /**
+   * Scores a move by the number of pieces it captures.
+   */
+  public static final MoveScorer CAPTURES = (board, cell, captures) -> captures;
+
+  /**
+   * Passes moves onto a corner hex.
+   */
+  public static final MoveFilter CORNERS = (board, cell, captures) ->
+          board.getGeometry().isCorner(cell);
+
+  /**
+   * Passes moves onto an edge hex, corners included.
+   */
+  public static final MoveFilter EDGES = (board, cell, captures) ->
+          board.getGeometry().isEdge(cell);
+
+  private MoveStages() {
+  }
+
+  /**
+   * Returns a stage keeping only the moves that pass a filter, which may
+   * leave no moves at all.
+   */
+  public static MoveStage filter(MoveFilter filter) {
+    return (board, player, moves) -> {
+      int kept = 0;
+      for (int i = 0; i < moves.size(); i++) {
+        if (filter.test(board, moves.cell(i), moves.captures(i))) {
+          moves.set(kept++, moves.get(i));
+        }
+      }
+      moves.truncate(kept);
+    };
+  }
+
+  /**
+   * Returns a stage keeping only the moves that pass a filter when any
+   * do, and every move otherwise.
+   */
+  public static MoveStage prefer(MoveFilter filter) {
+    MoveStage keep = filter(filter);
+    return (board, player, moves) -> {
+      for (int i = 0; i < moves.size(); i++) {
+        if (filter.test(board, moves.cell(i), moves.captures(i))) {
+          keep.narrow(board, player, moves);
+          return;
+        }
+      }
+    };
+  }
+
+  /**
+   * Returns a stage keeping only the moves with the highest score, all of
+   * them when several tie.
+   */
+  public static MoveStage best(MoveScorer scorer) {
+    return (board, player, moves) -> {
+      int kept = 0;
+      int bestScore = Integer.MIN_VALUE;
+      for (int i = 0; i < moves.size(); i++) {
+        int packed = moves.get(i);
+        int score = scorer.score(board, MoveList.cellOf(packed), MoveList.capturesOf(packed));
+        if (score > bestScore) {
+          bestScore = score;
+          kept = 0;
+        }
+        if (score == bestScore) {
+          moves.set(kept++, packed);
+        }
+      }
+      moves.truncate(kept);
+    };
+  }
+
+  /**
+   * Returns a tie-breaking stage keeping only the first move.
+   */
+  public static MoveStage first() {
+    return (board, player, moves) -> moves.truncate(1);
+  }
+}
@@ -0,0 +1,56 @@
+package model.strategies;
+
+import controller.Player;
+import model.AbstractBitBoard;
+import model.HexGeometry;
+import model.Move;
+import model.ReadOnlyBoardModel;
+import model.UndoRecord;
+import model.search.OpeningBook;
+
+import java.util.Optional;
+
+/**
+ * Represents a strategy that plays the move an opening book holds for the
+ * position, when it holds one, and uses another strategy otherwise.
+ */
+public class OpeningBookStrategy implements FallibleHexGameStrategy {
+  private final IStrategy fallback;
+  private final OpeningBook book;
+
+  /**
+   * Creates a strategy that looks moves up in a book before asking
+   * another strategy.
+   * Throws an exception if the fallback or the book is null.
+   */
+  public OpeningBookStrategy(IStrategy fallback, OpeningBook book) {
+    if (fallback == null || book == null) {
+      throw new IllegalArgumentException("The fallback strategy and book cannot be null.");
+    }
+    this.fallback = fallback;
+    this.book = book;
+  }
+
+  /**
+   * Selects the book move when it is the player's turn and the book holds
+   * the position, and the fallback strategy's move otherwise.
+   */
+  @Override
+  public Optional<Move> selectMove(ReadOnlyBoardModel board, Player player) {
+    if (board.getCurrentTurn() != player.getType()) {
+      return fallback.selectMove(board, player);
+    }
+    int cell = book.lookup(board);
+    if (cell == OpeningBook.NOT_FOUND) {
+      return fallback.selectMove(board, player);
+    }
+    if (cell == UndoRecord.PASS) {
+      return Optional.empty();
+    }
+    HexGeometry geometry = board.getGeometry();
+    int x = geometry.moveX(cell);
+    int y = geometry.moveY(cell);
+    AbstractBitBoard searchBoard = AbstractBitBoard.copyOf(board);
+    return Optional.of(new Move(x, y, searchBoard.calculateCaptures(x, y, player.getType())));
+  }
+}
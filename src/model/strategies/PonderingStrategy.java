@@ -0,0 +1,141 @@
+package model.strategies;
+
+import controller.Player;
+import controller.PlayerType;
+import model.AbstractBitBoard;
+import model.HexGeometry;
+import model.Move;
+import model.ReadOnlyBoardModel;
+import model.search.AlphaBetaSearch;
+import model.search.Evaluator;
+import model.search.TranspositionTable;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Represents a strategy that keeps thinking while the opponent chooses a
+ * move. After its own move, a background search deepens on the position
+ * the opponent faces, which covers every reply, and fills the transposition
+ * table the other strategy searches with. Once the opponent has moved, the
+ * background search is stopped and the other strategy picks the move,
+ * finding the results for the position it now faces already in the table,
+ * so it reaches a greater depth in the same time.
+ */
+public class PonderingStrategy implements FallibleHexGameStrategy {
+  private final IStrategy strategy;
+  private final TranspositionTable table;
+  private final AlphaBetaSearch search;
+  private final ExecutorService ponderPool;
+  private Future<?> running = null;
+  private volatile int ponderedDepth = 0;
+
+  /**
+   * Creates a strategy that ponders into the table another strategy
+   * searches with, scoring positions with an evaluator from a supplier.
+   * Throws an exception if any argument is null.
+   */
+  public PonderingStrategy(IStrategy strategy, TranspositionTable table,
+                           Supplier<Evaluator> evaluators) {
+    if (strategy == null || table == null || evaluators == null) {
+      throw new IllegalArgumentException("The strategy, table and evaluators cannot be null.");
+    }
+    this.strategy = strategy;
+    this.table = table;
+    this.search = new AlphaBetaSearch(table, evaluators.get());
+    this.ponderPool = Executors.newSingleThreadExecutor(task -> {
+      Thread thread = new Thread(task, "ponder");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Stops pondering and selects the other strategy's move.
+   */
+  @Override
+  public Optional<Move> selectMove(ReadOnlyBoardModel board, Player player) {
+    stopPondering();
+    return strategy.selectMove(board, player);
+  }
+
+  /**
+   * Starts searching, in the background, the position on a board as it
+   * stands with the opponent to move, until stopped or the search reaches
+   * the end of the game. Any earlier pondering is stopped first. Pondering
+   * should be stopped as soon as the opponent's move arrives or the game
+   * ends; what it found stays in the table.
+   */
+  public void ponder(ReadOnlyBoardModel board) {
+    stopPondering();
+    if (board.isGameOver()) {
+      return;
+    }
+    AbstractBitBoard ponderBoard = AbstractBitBoard.copyOf(board);
+    table.newSearch();
+    search.clearBestCell();
+    search.ageHistory();
+    search.start(AlphaBetaSearch.NO_DEADLINE);
+    ponderedDepth = 0;
+    running = ponderPool.submit(() -> deepen(ponderBoard));
+  }
+
+  /**
+   * Searches a board one move deeper at a time until stopped, until the
+   * depth covers every playable empty hex, or until a depth proves the
+   * game won or lost.
+   */
+  private void deepen(AbstractBitBoard board) {
+    HexGeometry geometry = board.getGeometry();
+    int deadHexes = geometry.getCellCount() - geometry.getPlayableCount();
+    int maxDepth = Math.max(1, board.countPieces(PlayerType.EMPTY) - deadHexes);
+    int score = 0;
+    for (int depth = 1; depth <= maxDepth; depth++) {
+      score = search.searchAspirated(board, depth, score);
+      if (search.isStopped()) {
+        return;
+      }
+      ponderedDepth = depth;
+      if (AlphaBetaSearch.isProven(score)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Stops any pondering and waits for it to finish, which takes at most a
+   * few thousand positions. Throws an exception if the search failed.
+   */
+  public void stopPondering() {
+    if (running == null) {
+      return;
+    }
+    search.stop();
+    boolean interrupted = false;
+    while (true) {
+      try {
+        running.get();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("The pondering search failed.", e.getCause());
+      }
+    }
+    running = null;
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Returns the depth of the deepest search pondering finished so far.
+   */
+  public int getPonderedDepth() {
+    return ponderedDepth;
+  }
+}
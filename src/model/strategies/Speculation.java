@@ -0,0 +1,139 @@
+package model.strategies;
+
+import controller.Player;
+import model.AbstractBitBoard;
+import model.Move;
+import model.MoveList;
+import model.ReadOnlyBoardModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the strategies of a fallback chain all at once instead of one after
+ * another, so a strategy that fails no longer delays the ones behind it.
+ * The first result present in the chain's order is used. The strategies
+ * behind it are interrupted, and every one of them has finished by the time
+ * a result is returned, so none is still running when asked for the next
+ * move.
+ *
+ * <p>Strategies keep scratch state between calls, such as their move lists
+ * and search tables, so a strategy must not run twice at once. A
+ * speculative chain therefore rejects the same instance appearing twice
+ * when it is built, and an instance must not be shared with another chain
+ * or nested strategy that may run at the same time.
+ */
+public final class Speculation {
+  private static final ExecutorService POOL = Executors.newCachedThreadPool(task -> {
+    Thread thread = new Thread(task, "speculation");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private Speculation() {
+  }
+
+  /**
+   * Throws an exception if the same strategy instance appears twice in a
+   * chain that is to run speculatively.
+   */
+  public static void requireDistinct(List<?> strategies) {
+    Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Object strategy : strategies) {
+      if (!seen.add(strategy)) {
+        throw new IllegalArgumentException(
+                "A speculative chain cannot hold the same strategy twice.");
+      }
+    }
+  }
+
+  /**
+   * Runs every task at once and returns the first result present, in the
+   * order of the list, or none when every task came back empty.
+   * Throws an exception if a task ahead of the first result failed.
+   */
+  public static <T> Optional<T> firstPresent(List<Callable<Optional<T>>> tasks) {
+    int count = tasks.size();
+    CountDownLatch finished = new CountDownLatch(count);
+    List<AtomicBoolean> claims = new ArrayList<>(count);
+    List<Future<Optional<T>>> running = new ArrayList<>(count);
+    for (Callable<Optional<T>> task : tasks) {
+      AtomicBoolean claim = new AtomicBoolean();
+      claims.add(claim);
+      running.add(POOL.submit(() -> {
+        if (!claim.compareAndSet(false, true)) {
+          return Optional.empty();
+        }
+        try {
+          return task.call();
+        } finally {
+          finished.countDown();
+        }
+      }));
+    }
+
+    Optional<T> result = Optional.empty();
+    Throwable failure = null;
+    boolean interrupted = false;
+    int next = 0;
+    while (next < count && !result.isPresent() && failure == null) {
+      try {
+        result = running.get(next).get();
+        next++;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      } catch (ExecutionException e) {
+        failure = e.getCause();
+      }
+    }
+
+    for (int i = next; i < count; i++) {
+      if (claims.get(i).compareAndSet(false, true)) {
+        finished.countDown();
+      }
+      running.get(i).cancel(true);
+    }
+    while (true) {
+      try {
+        finished.await();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    if (failure != null) {
+      throw new IllegalStateException("A speculative strategy failed.", failure);
+    }
+    return result;
+  }
+
+  /**
+   * Runs strategies at once, each on its own copy of the board, and returns
+   * the first move found in their order. Strategies that can choose from a
+   * list of legal moves share the one given, which must not change until
+   * this returns.
+   */
+  static Optional<Move> selectFirst(List<IStrategy> strategies, ReadOnlyBoardModel board,
+                                    Player player, MoveList legal) {
+    List<Callable<Optional<Move>>> tasks = new ArrayList<>(strategies.size());
+    for (IStrategy strategy : strategies) {
+      AbstractBitBoard copy = AbstractBitBoard.copyOf(board);
+      tasks.add(() -> StrategyChain.select(strategy, copy, player, legal));
+    }
+    return firstPresent(tasks);
+  }
+}
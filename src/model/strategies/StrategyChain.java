@@ -0,0 +1,87 @@
+package model.strategies;
+
+import controller.Player;
+import model.Move;
+import model.MoveList;
+import model.ReadOnlyBoardModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Represents any number of strategies tried in order until one finds a
+ * move. The legal moves are generated once per turn and handed to every
+ * strategy that can choose from them; the others select as usual. In
+ * speculative mode every strategy starts at once and the first move found
+ * in order is played, as in Speculation.
+ */
+public class StrategyChain implements MoveListStrategy {
+  private final List<IStrategy> strategies;
+  private final boolean speculative;
+  private final MoveList moves = new MoveList();
+
+  /**
+   * Creates a chain trying strategies one after the other in the order given.
+   * Throws an exception if the list is null or holds a null strategy.
+   */
+  public StrategyChain(List<IStrategy> strategies) {
+    this(strategies, false);
+  }
+
+  /**
+   * Creates a chain trying strategies in the order given, one after the
+   * other or, when speculative, all at once.
+   * Throws an exception if the list is null or holds a null strategy, or
+   * if speculative and it holds the same strategy instance twice.
+   */
+  public StrategyChain(List<IStrategy> strategies, boolean speculative) {
+    if (strategies == null) {
+      throw new IllegalArgumentException("The strategies cannot be null.");
+    }
+    for (IStrategy strategy : strategies) {
+      if (strategy == null) {
+        throw new IllegalArgumentException("A strategy cannot be null.");
+      }
+    }
+    if (speculative) {
+      Speculation.requireDistinct(strategies);
+    }
+    this.strategies = new ArrayList<>(strategies);
+    this.speculative = speculative;
+  }
+
+  /**
+   * Generates the legal moves once and selects the first strategy's move.
+   */
+  @Override
+  public Optional<Move> selectMove(ReadOnlyBoardModel board, Player player) {
+    board.generateMoves(player.getType(), moves);
+    return selectFrom(board, player, moves);
+  }
+
+  @Override
+  public Optional<Move> selectFrom(ReadOnlyBoardModel board, Player player, MoveList legal) {
+    if (speculative) {
+      return Speculation.selectFirst(strategies, board, player, legal);
+    }
+    for (IStrategy strategy : strategies) {
+      Optional<Move> move = select(strategy, board, player, legal);
+      if (move.isPresent()) {
+        return move;
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Selects a strategy's move, from the shared legal moves if it can.
+   */
+  static Optional<Move> select(IStrategy strategy, ReadOnlyBoardModel board, Player player,
+                               MoveList legal) {
+    if (strategy instanceof MoveListStrategy) {
+      return ((MoveListStrategy) strategy).selectFrom(board, player, legal);
+    }
+    return strategy.selectMove(board, player);
+  }
+}
@@ -1,34 +1,77 @@
 package model.strategies;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import controller.Player;
 import model.Move;
+import model.MoveList;
 import model.ReadOnlyBoardModel;
 
 /**
  * Represents a class that allows multiple strategies.
+ * When either strategy can choose from a list of legal moves, the moves
+ * are generated once and shared by both. In speculative mode both
+ * strategies start at once, so a failing first strategy no longer adds
+ * its time to the second's.
  */
-public class TryTwo implements FallibleHexGameStrategy {
+public class TryTwo implements MoveListStrategy {
   IStrategy first;
   IStrategy second;
+  private final boolean speculative;
+  private final MoveList moves = new MoveList();
 
   /**
    * Represents a constructor for combining two strategies.
    */
   public TryTwo(IStrategy first, IStrategy second) {
+    this(first, second, false);
+  }
+
+  /**
+   * Represents a constructor for combining two strategies, run one after
+   * the other or, when speculative, both at once as in Speculation.
+   * Throws an exception if speculative and both strategies are the same instance.
+   */
+  public TryTwo(IStrategy first, IStrategy second, boolean speculative) {
+    if (speculative) {
+      Speculation.requireDistinct(Arrays.asList(first, second));
+    }
     this.first = first;
     this.second = second;
+    this.speculative = speculative;
   }
 
   /**
    * Selects a certain move for an AIPlayer.
    */
   public Optional<Move> selectMove(ReadOnlyBoardModel board, Player player) {
-    Optional<Move> firstMove = this.first.selectMove(board, player);
+    if (!speculative
+            && !(first instanceof MoveListStrategy) && !(second instanceof MoveListStrategy)) {
+      Optional<Move> firstMove = this.first.selectMove(board, player);
+      if (firstMove.isPresent()) {
+        return firstMove; // the first strategy succeeded
+      }
+      return this.second.selectMove(board, player);
+    }
+    board.generateMoves(player.getType(), moves);
+    return selectFrom(board, player, moves);
+  }
+
+  /**
+   * Selects the first strategy's move from shared legal moves, or else
+   * the second's.
+   */
+  @Override
+  public Optional<Move> selectFrom(ReadOnlyBoardModel board, Player player, MoveList legal) {
+    if (speculative) {
+      return Speculation.selectFirst(List.of(first, second), board, player, legal);
+    }
+    Optional<Move> firstMove = StrategyChain.select(first, board, player, legal);
     if (firstMove.isPresent()) {
-      return firstMove; // the first strategy succeeded
+      return firstMove;
     }
-    return this.second.selectMove(board, player);
+    return StrategyChain.select(second, board, player, legal);
   }
 }
@@ -2,18 +2,23 @@ package provider.controller;
 
 import controller.PlayerColor;
 import controller.Strategy;
+import model.strategies.Speculation;
 import provider.model.HexCoordinates;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 
 
 /**
  * Represents having an n number of strategies, where each strategy is implemented
- * until a move is found.
+ * until a move is found. In speculative mode every strategy starts at once and the
+ * first move found in order is used.
  */
 public class MultipleStrategies implements Strategy {
   private final List<Strategy> e;
+  private final boolean speculative;
 
   /**
    * The constructor for multiple strategies.
@@ -21,7 +26,22 @@ public class MultipleStrategies implements Strategy {
    * @param e A list of strategies.
    */
   public MultipleStrategies(List<Strategy> e) {
+    this(e, false);
+  }
+
+  /**
+   * The constructor for multiple strategies, run one after the other or all at once.
+   *
+   * @param e           A list of strategies.
+   * @param speculative Whether every strategy starts at once.
+   * @throws IllegalArgumentException if speculative and a strategy appears twice.
+   */
+  public MultipleStrategies(List<Strategy> e, boolean speculative) {
+    if (speculative) {
+      Speculation.requireDistinct(e);
+    }
     this.e = e;
+    this.speculative = speculative;
   }
 
 
@@ -35,6 +55,13 @@ public class MultipleStrategies implements Strategy {
   @Override
   public Optional<HexCoordinates> chooseMove(PlayerColor color) {
     isColorEmpty(color);
+    if (speculative) {
+      List<Callable<Optional<HexCoordinates>>> tasks = new ArrayList<>(e.size());
+      for (Strategy s : e) {
+        tasks.add(() -> s.chooseMove(color));
+      }
+      return Speculation.firstPresent(tasks);
+    }
     for (Strategy s : e) {
       Optional<HexCoordinates> hc = s.chooseMove(color);
       if (hc.isPresent()) {